@@ -0,0 +1,10 @@
+package com.whatstheplan.events.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({RecurrenceCacheProperties.class, SearchCacheProperties.class, EventCacheProperties.class,
+        CategoryDictionaryProperties.class})
+public class CacheConfig {
+}
@@ -0,0 +1,18 @@
+package com.whatstheplan.events.config;
+
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+public class ChangeFeedConfig {
+
+    // The notify trigger reports application_name, which is how a node recognises its own writes.
+    @Bean
+    public ConnectionFactoryOptionsBuilderCustomizer applicationNameCustomizer(ChangeFeedProperties properties) {
+        return builder -> builder.option(PostgresqlConnectionFactoryProvider.APPLICATION_NAME, properties.getNodeId());
+    }
+}
@@ -0,0 +1,17 @@
+package com.whatstheplan.events.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Data
+@ConfigurationProperties("events.change-feed")
+public class ChangeFeedProperties {
+    private boolean enabled = true;
+    private String nodeId = "events-" + UUID.randomUUID().toString().substring(0, 8);
+    private Duration minBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofSeconds(30);
+    private Duration catchUpOverlap = Duration.ofSeconds(5);
+}
@@ -0,0 +1,16 @@
+package com.whatstheplan.events.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("events.lookup-batching")
+public class LookupBatchingProperties {
+    private boolean enabled = true;
+    private Duration window = Duration.ofMillis(2);
+    private int maxBatchSize = 64;
+    private int maxConcurrentBatches = 4;
+    private int maxQueuedLookups = 1024;
+}
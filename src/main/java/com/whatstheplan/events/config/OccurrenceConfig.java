@@ -0,0 +1,11 @@
+package com.whatstheplan.events.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(OccurrenceProperties.class)
+public class OccurrenceConfig {
+}
@@ -0,0 +1,13 @@
+package com.whatstheplan.events.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("events.occurrences")
+public class OccurrenceProperties {
+    private Duration horizon = Duration.ofDays(180);
+    private int maxPerSeries = 1000;
+}
@@ -0,0 +1,13 @@
+package com.whatstheplan.events.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("events.partitions")
+public class PartitionProperties {
+    private int premadeMonths = 3;
+    private Duration retention = Duration.ofDays(90);
+}
@@ -0,0 +1,28 @@
+package com.whatstheplan.events.config;
+
+import com.whatstheplan.events.repository.PreparedStatementCacheListener;
+import com.whatstheplan.events.repository.StatementMetricsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.proxy.ProxyConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(QueryMetricsProperties.class)
+@ConditionalOnProperty(value = "events.query-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetricsConfig {
+
+    // Slow statements are explained on the undecorated factory so the EXPLAIN itself is not measured.
+    @Bean
+    public ConnectionFactoryDecorator statementMetricsDecorator(QueryMetricsProperties properties,
+                                                                SearchProperties searchProperties,
+                                                                MeterRegistry meterRegistry) {
+        return connectionFactory -> ProxyConnectionFactory.builder(connectionFactory)
+                .listener(new StatementMetricsListener(properties, meterRegistry, connectionFactory))
+                .listener(new PreparedStatementCacheListener(meterRegistry, searchProperties.getStatementCacheSize()))
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.whatstheplan.events.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("events.query-metrics")
+public class QueryMetricsProperties {
+    private boolean enabled = true;
+    private Duration slowThreshold = Duration.ofMillis(500);
+    private boolean explainSlowQueries = false;
+    private Duration explainInterval = Duration.ofMinutes(5);
+}
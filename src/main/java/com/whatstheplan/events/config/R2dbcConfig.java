@@ -1,6 +1,8 @@
 package com.whatstheplan.events.config;
 
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
 import io.r2dbc.postgresql.codec.Interval;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -14,6 +16,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -33,6 +36,13 @@ public class R2dbcConfig {
         return new R2dbcCustomConversions(storeConversions, converters);
     }
 
+    // LocalDateTime values are bound as TIMESTAMP and converted by the server with the session time zone, so the
+    // session is pinned to UTC to match the explicit UTC offsets used for TIMESTAMPTZ binds.
+    @Bean
+    public ConnectionFactoryOptionsBuilderCustomizer utcSessionCustomizer() {
+        return builder -> builder.option(PostgresqlConnectionFactoryProvider.OPTIONS, Map.of("TimeZone", "UTC"));
+    }
+
     @ReadingConverter
     public static class IntervalToDurationConverter implements Converter<Interval, Duration> {
 
@@ -0,0 +1,11 @@
+package com.whatstheplan.events.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("events.read-model")
+public class ReadModelProperties {
+    private boolean enabled = false;
+    private int initialCapacity = 1_024;
+}
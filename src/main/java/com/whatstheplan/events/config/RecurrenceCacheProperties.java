@@ -0,0 +1,10 @@
+package com.whatstheplan.events.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("events.recurrence-cache")
+public class RecurrenceCacheProperties {
+    private long maximumSize = 10_000;
+}
@@ -0,0 +1,14 @@
+package com.whatstheplan.events.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("events.search-cache")
+public class SearchCacheProperties {
+    private long maximumSize = 1_000;
+    private Duration timeToLive = Duration.ofSeconds(30);
+    private Duration windowGranularity = Duration.ofMinutes(1);
+}
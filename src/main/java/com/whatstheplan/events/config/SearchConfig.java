@@ -0,0 +1,19 @@
+package com.whatstheplan.events.config;
+
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({SearchProperties.class, ReadModelProperties.class, LookupBatchingProperties.class})
+public class SearchConfig {
+
+    @Bean
+    public ConnectionFactoryOptionsBuilderCustomizer statementCacheCustomizer(SearchProperties searchProperties) {
+        return builder -> builder.option(
+                PostgresqlConnectionFactoryProvider.PREPARED_STATEMENT_CACHE_QUERIES,
+                searchProperties.getStatementCacheSize());
+    }
+}
@@ -0,0 +1,16 @@
+package com.whatstheplan.events.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("events.search")
+public class SearchProperties {
+    private int occurrenceBatchSize = 64;
+    private Duration occurrenceBatchWindow = Duration.ofMillis(5);
+    private int occurrenceParallelism = Schedulers.DEFAULT_POOL_SIZE;
+    private int statementCacheSize = 256;
+}
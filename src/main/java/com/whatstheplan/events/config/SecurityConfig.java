@@ -26,7 +26,7 @@ public class SecurityConfig {
         http
                 .authorizeExchange(auth -> auth
                         .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                        .pathMatchers("/events", "/events/*").hasRole("user")
+                        .pathMatchers("/events", "/events/*", "/events/search/**").hasRole("user")
                         .pathMatchers("/actuator/health", "/actuator/health/**").permitAll()
                         .anyExchange().authenticated())
                 .cors(withDefaults())
@@ -0,0 +1,34 @@
+package com.whatstheplan.events.controller;
+
+import com.whatstheplan.events.model.ResourceVersion;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ServerWebExchange;
+
+@UtilityClass
+class ConditionalRequests {
+
+    // Evaluates If-None-Match / If-Modified-Since; on a match the exchange is already marked 304.
+    static boolean isNotModified(ServerWebExchange exchange, ResourceVersion version) {
+        return version.lastModified() != null
+                ? exchange.checkNotModified(version.eTag(), version.lastModified())
+                : exchange.checkNotModified(version.eTag());
+    }
+
+    static <T> ResponseEntity<T> notModified(ResourceVersion version) {
+        return validators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version).build();
+    }
+
+    static <T> ResponseEntity<T> ok(ResourceVersion version, T body) {
+        return validators(ResponseEntity.ok(), version).body(body);
+    }
+
+    private static ResponseEntity.BodyBuilder validators(ResponseEntity.BodyBuilder builder, ResourceVersion version) {
+        builder.eTag(version.eTag());
+        if (version.lastModified() != null) {
+            builder.lastModified(version.lastModified());
+        }
+        return builder;
+    }
+}
@@ -2,7 +2,10 @@ package com.whatstheplan.events.controller;
 
 import com.whatstheplan.events.exceptions.FileValidationException;
 import com.whatstheplan.events.exceptions.ValidationException;
+import com.whatstheplan.events.model.ResourceVersion;
+import com.whatstheplan.events.model.request.EventBatchRequest;
 import com.whatstheplan.events.model.request.EventRequest;
+import com.whatstheplan.events.model.response.EventBatchResponse;
 import com.whatstheplan.events.model.response.EventResponse;
 import com.whatstheplan.events.services.EventService;
 import lombok.RequiredArgsConstructor;
@@ -20,11 +23,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
@@ -39,9 +46,30 @@ public class EventsController {
 
     @GetMapping("/{eventId}")
     public Mono<ResponseEntity<EventResponse>> getEventById(
-            @PathVariable("eventId") UUID eventId) {
+            @PathVariable("eventId") UUID eventId,
+            ServerWebExchange exchange) {
         return Mono.just(eventId)
                 .flatMap(eventService::findById)
+                .map(event -> {
+                    ResourceVersion version = ResourceVersion.of(event);
+                    return ConditionalRequests.isNotModified(exchange, version)
+                            ? ConditionalRequests.<EventResponse>notModified(version)
+                            : ConditionalRequests.ok(version, event);
+                });
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<EventBatchResponse>> getEventsByIds(
+            @RequestParam("ids") List<UUID> eventIds) {
+        return eventService.findByIds(eventIds)
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<EventBatchResponse>> getEventsByIdsBatch(
+            @RequestBody Mono<EventBatchRequest> batchRequestMono) {
+        return batchRequestMono
+                .flatMap(request -> eventService.findByIds(request.getIds()))
                 .map(ResponseEntity::ok);
     }
 
@@ -1,11 +1,13 @@
 package com.whatstheplan.events.controller;
 
+import com.whatstheplan.events.exceptions.EventArchivedException;
 import com.whatstheplan.events.exceptions.EventNotFoundException;
 import com.whatstheplan.events.exceptions.FileValidationException;
 import com.whatstheplan.events.exceptions.UploadImageToS3Exception;
 import com.whatstheplan.events.exceptions.ValidationException;
 import com.whatstheplan.events.model.response.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -35,6 +37,11 @@ public class EventsControllerAdvice {
         return ResponseEntity.badRequest().body(new ErrorResponse(ex.getMessage()));
     }
 
+    @ExceptionHandler(EventArchivedException.class)
+    public ResponseEntity<ErrorResponse> handleEventArchivedException(EventArchivedException ex) {
+        return ResponseEntity.status(HttpStatus.GONE).body(new ErrorResponse(ex.getMessage()));
+    }
+
 
     @ExceptionHandler(ServerWebInputException.class)
     public ResponseEntity<ErrorResponse> handleServerWebInputException(ServerWebInputException ex) {
@@ -1,19 +1,22 @@
 package com.whatstheplan.events.controller;
 
 import com.whatstheplan.events.model.request.EventFilterRequest;
+import com.whatstheplan.events.model.response.EventPageResponse;
 import com.whatstheplan.events.model.response.EventResponse;
+import com.whatstheplan.events.model.response.FacetsResponse;
 import com.whatstheplan.events.services.EventSearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -22,12 +25,30 @@ public class EventsSearchController {
     private final EventSearchService eventSearchService;
 
     @GetMapping
-    public Mono<ResponseEntity<List<EventResponse>>> searchWithFilters(@ModelAttribute EventFilterRequest eventFilterRequest) {
+    public Mono<ResponseEntity<EventPageResponse>> searchWithFilters(@ModelAttribute EventFilterRequest eventFilterRequest,
+                                                                     ServerWebExchange exchange) {
         return Mono.just(eventFilterRequest)
                 .doOnNext(request -> log.info("Received search filter request: {}", request))
-                .flatMap(request -> eventSearchService.searchEvents(request)
-                        .collectList()
-                        .map(ResponseEntity::ok));
+                .flatMap(eventSearchService::searchVersion)
+                .flatMap(version -> ConditionalRequests.isNotModified(exchange, version)
+                        ? Mono.just(ConditionalRequests.<EventPageResponse>notModified(version))
+                        : eventSearchService.searchPage(eventFilterRequest)
+                                .map(page -> ConditionalRequests.ok(version, page)));
+    }
+
+    @GetMapping("/facets")
+    public Mono<ResponseEntity<FacetsResponse>> facetsWithFilters(@ModelAttribute EventFilterRequest eventFilterRequest) {
+        return Mono.just(eventFilterRequest)
+                .doOnNext(request -> log.info("Received facets filter request: {}", request))
+                .flatMap(eventSearchService::facets)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<EventResponse> streamWithFilters(@ModelAttribute EventFilterRequest eventFilterRequest) {
+        return Flux.just(eventFilterRequest)
+                .doOnNext(request -> log.info("Received streaming search filter request: {}", request))
+                .flatMap(eventSearchService::streamEvents);
     }
 
 }
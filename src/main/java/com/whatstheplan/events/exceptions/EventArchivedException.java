@@ -0,0 +1,7 @@
+package com.whatstheplan.events.exceptions;
+
+public class EventArchivedException extends RuntimeException {
+    public EventArchivedException(String message) {
+        super(message);
+    }
+}
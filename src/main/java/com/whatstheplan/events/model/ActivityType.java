@@ -3,8 +3,16 @@ package com.whatstheplan.events.model;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+// Bits of event.activity_mask follow declaration order, so new values must be appended and never reordered. The
+// database maps names to the same bits in activity_type_bit, which a new value has to be added to by a migration.
 @Getter
 @RequiredArgsConstructor
 public enum ActivityType {
@@ -50,13 +58,46 @@ public enum ActivityType {
     LANGUAGE_LEARNING("Language Learning"),
     PAINTING("Painting");
 
+    private static final ActivityType[] VALUES = values();
+    private static final Map<String, ActivityType> BY_NAME = Arrays.stream(VALUES)
+            .collect(Collectors.toUnmodifiableMap(ActivityType::getName, Function.identity()));
+
     private final String name;
 
-    public static ActivityType from(String name) { // TODO validate request with this
-        return Arrays.stream(ActivityType.values())
-                .filter(activityType -> activityType.name.equals(name))
-                .findFirst()
-                .orElseThrow();
+    public static ActivityType from(String name) {
+        ActivityType activityType = BY_NAME.get(name);
+        if (activityType == null) {
+            throw new IllegalArgumentException("Unknown activity type: " + name);
+        }
+        return activityType;
+    }
+
+    public static boolean isValid(String name) {
+        return BY_NAME.containsKey(name);
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public static long mask(Collection<String> names) {
+        long mask = 0;
+        if (names != null) {
+            for (String name : names) {
+                mask |= from(name).bit();
+            }
+        }
+        return mask;
     }
-}
 
+    public static List<String> namesFromMask(long mask) {
+        List<String> names = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            int ordinal = Long.numberOfTrailingZeros(remaining);
+            if (ordinal < VALUES.length) {
+                names.add(VALUES[ordinal].name);
+            }
+        }
+        return names;
+    }
+}
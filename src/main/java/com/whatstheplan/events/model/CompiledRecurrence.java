@@ -0,0 +1,34 @@
+package com.whatstheplan.events.model;
+
+import com.whatstheplan.events.utils.RecurrenceEvaluator;
+import net.fortuna.ical4j.model.Recur;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.whatstheplan.events.utils.RecurrenceUtils.generateRRule;
+import static com.whatstheplan.events.utils.RecurrenceUtils.toRecurrence;
+
+public record CompiledRecurrence(String rule, Recur<LocalDateTime> recur, Recurrence recurrence, boolean canonical) {
+
+    public static CompiledRecurrence compile(String rule) {
+        Recur<LocalDateTime> recur = new Recur<>(rule);
+        Recurrence recurrence = toRecurrence(recur);
+        recurrence.setByDays(List.copyOf(recurrence.getByDays()));
+        recurrence.setByMonthDay(List.copyOf(recurrence.getByMonthDay()));
+        return new CompiledRecurrence(rule, recur, recurrence, rule.equals(generateRRule(recurrence)));
+    }
+
+    // Responses expose the recurrence as a mutable DTO, so every caller gets its own copy of the cached one.
+    @Override
+    public Recurrence recurrence() {
+        return recurrence.copy();
+    }
+
+    public boolean occursBetween(LocalDateTime seed, LocalDateTime from, LocalDateTime to) {
+        if (canonical && RecurrenceEvaluator.supports(recurrence, seed)) {
+            return RecurrenceEvaluator.occursBetween(recurrence, seed, from, to);
+        }
+        return !recur.getDates(seed, from, to).isEmpty();
+    }
+}
@@ -0,0 +1,12 @@
+package com.whatstheplan.events.model;
+
+import java.util.UUID;
+
+public record EventChange(UUID eventId, Operation operation, String table, String node, boolean local) {
+
+    public enum Operation {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+}
@@ -0,0 +1,13 @@
+package com.whatstheplan.events.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record FacetCandidate(UUID id,
+                             LocalDateTime dateTime,
+                             String recurrence,
+                             Integer capacity,
+                             Duration duration,
+                             long activityMask) {
+}
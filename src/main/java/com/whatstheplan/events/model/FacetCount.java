@@ -0,0 +1,4 @@
+package com.whatstheplan.events.model;
+
+public record FacetCount(String facet, Integer bucket, long count) {
+}
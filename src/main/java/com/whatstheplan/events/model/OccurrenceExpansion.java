@@ -0,0 +1,7 @@
+package com.whatstheplan.events.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record OccurrenceExpansion(List<LocalDateTime> starts, LocalDateTime materializedUntil, boolean complete) {
+}
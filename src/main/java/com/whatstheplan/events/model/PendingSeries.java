@@ -0,0 +1,12 @@
+package com.whatstheplan.events.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record PendingSeries(UUID eventId,
+                            LocalDateTime dateTime,
+                            Duration duration,
+                            String recurrence,
+                            LocalDateTime occurrencesUntil) {
+}
@@ -13,10 +13,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Recurrence {
@@ -41,4 +42,11 @@ public class Recurrence {
     public boolean isUntilOrCountExclusive() {
         return (until == null) != (count == null);
     }
+
+    public Recurrence copy() {
+        return toBuilder()
+                .byDays(byDays == null ? null : new ArrayList<>(byDays))
+                .byMonthDay(byMonthDay == null ? null : new ArrayList<>(byMonthDay))
+                .build();
+    }
 }
@@ -0,0 +1,30 @@
+package com.whatstheplan.events.model;
+
+import com.whatstheplan.events.model.request.EventFilterRequest;
+import com.whatstheplan.events.model.response.EventResponse;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+// HTTP validators for a representation: a strong ETag and, when known, its Last-Modified instant.
+public record ResourceVersion(String eTag, Instant lastModified) {
+
+    public static ResourceVersion of(EventResponse event) {
+        return new ResourceVersion(
+                digest(event.getId() + "|" + event.getLastModifiedDate()),
+                event.getLastModifiedDate());
+    }
+
+    // The filter is expected to be normalized so requests for the same page share a tag. A page has no single
+    // Last-Modified instant: an event leaving it does not move any row's modification date, so only the ETag is sent.
+    public static ResourceVersion of(EventFilterRequest filter, SearchValidator validator) {
+        return new ResourceVersion(
+                digest(filter + "|" + validator.count() + "|" + validator.lastModified() + "|" + validator.ids()),
+                null);
+    }
+
+    private static String digest(String value) {
+        return DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,40 @@
+package com.whatstheplan.events.model;
+
+import com.whatstheplan.events.exceptions.ValidationException;
+import com.whatstheplan.events.model.response.EventResponse;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public record SearchCursor(LocalDateTime dateTime, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static SearchCursor of(EventResponse event) {
+        return new SearchCursor(event.getDateTime(), event.getId());
+    }
+
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new SearchCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException ex) {
+            throw new ValidationException("Invalid search cursor.");
+        }
+    }
+
+    public String encode() {
+        String raw = dateTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+    }
+}
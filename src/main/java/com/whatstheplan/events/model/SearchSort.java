@@ -0,0 +1,7 @@
+package com.whatstheplan.events.model;
+
+public enum SearchSort {
+    DATE,
+    DISTANCE,
+    RELEVANCE
+}
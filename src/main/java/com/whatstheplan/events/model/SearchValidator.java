@@ -0,0 +1,6 @@
+package com.whatstheplan.events.model;
+
+import java.time.Instant;
+
+public record SearchValidator(long count, Instant lastModified, String ids) {
+}
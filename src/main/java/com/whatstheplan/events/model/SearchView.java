@@ -0,0 +1,6 @@
+package com.whatstheplan.events.model;
+
+public enum SearchView {
+    SUMMARY,
+    FULL
+}
@@ -26,8 +26,13 @@ public class Event extends AbstractAuditingEntity<UUID> {
     private LocalDateTime dateTime;
     private Duration duration;
     private String location;
+    private Double latitude;
+    private Double longitude;
+    private String geohash;
     private Integer capacity;
     private String imageKey;
     private UUID organizerId;
     private String recurrence;
+    private LocalDateTime seriesEnd;
+    private Long activityMask;
 }
@@ -1,5 +1,7 @@
 package com.whatstheplan.events.model.request;
 
+import com.whatstheplan.events.model.SearchSort;
+import com.whatstheplan.events.model.SearchView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,11 +14,13 @@ import java.util.List;
 
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class EventFilterRequest {
 
+    private String q;
+
     private String location;
 
     private Duration durationFrom;
@@ -32,4 +36,18 @@ public class EventFilterRequest {
 
     @Builder.Default
     private List<String> activityTypes = Collections.emptyList();
+
+    private Double lat;
+    private Double lon;
+    private Double radiusKm;
+
+    @Builder.Default
+    private SearchSort sort = SearchSort.DATE;
+
+    // SUMMARY leaves large columns such as description out of the query and the response.
+    @Builder.Default
+    private SearchView view = SearchView.FULL;
+
+    private Integer limit;
+    private String cursor;
 }
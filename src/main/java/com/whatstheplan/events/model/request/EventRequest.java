@@ -1,8 +1,12 @@
 package com.whatstheplan.events.model.request;
 
+import com.whatstheplan.events.model.ActivityType;
 import com.whatstheplan.events.model.Recurrence;
 import com.whatstheplan.events.model.entities.Event;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -18,7 +22,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import static com.whatstheplan.events.utils.GeoHashUtils.encode;
 import static com.whatstheplan.events.utils.RecurrenceUtils.generateRRule;
+import static com.whatstheplan.events.utils.RecurrenceUtils.seriesEnd;
 import static com.whatstheplan.events.utils.Utils.getUserId;
 
 @Data
@@ -42,6 +48,14 @@ public class EventRequest {
     @NotBlank(message = "Location is required.")
     private String location;
 
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90.")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90.")
+    private Double latitude;
+
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180.")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180.")
+    private Double longitude;
+
     @Min(value = 1, message = "Capacity must be at least 1.")
     private int capacity;
 
@@ -50,6 +64,11 @@ public class EventRequest {
 
     private List<String> activityTypes;
 
+    @AssertTrue(message = "Invalid activity type.")
+    public boolean isActivityTypesValid() {
+        return activityTypes == null || activityTypes.stream().allMatch(ActivityType::isValid);
+    }
+
     public Mono<Event> toNewEntity(String imageKey) {
         return getUserId()
                 .map(userId -> Event.builder()
@@ -59,9 +78,14 @@ public class EventRequest {
                         .dateTime(dateTime)
                         .duration(duration)
                         .location(location)
+                        .latitude(latitude)
+                        .longitude(longitude)
+                        .geohash(geohash())
                         .capacity(capacity)
                         .imageKey(imageKey)
                         .recurrence(generateRRule(recurrence))
+                        .seriesEnd(seriesEnd(recurrence, dateTime))
+                        .activityMask(ActivityType.mask(activityTypes))
                         .organizerId(userId)
                         .isNew(true)
                         .build());
@@ -76,11 +100,20 @@ public class EventRequest {
                         .dateTime(dateTime)
                         .duration(duration)
                         .location(location)
+                        .latitude(latitude)
+                        .longitude(longitude)
+                        .geohash(geohash())
                         .capacity(capacity)
                         .imageKey(imageKey)
                         .recurrence(generateRRule(recurrence))
+                        .seriesEnd(seriesEnd(recurrence, dateTime))
+                        .activityMask(ActivityType.mask(activityTypes))
                         .organizerId(userId)
                         .isNew(false)
                         .build());
     }
+
+    private String geohash() {
+        return latitude != null && longitude != null ? encode(latitude, longitude) : null;
+    }
 }
@@ -0,0 +1,18 @@
+package com.whatstheplan.events.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventBatchResponse {
+    private List<EventResponse> events;
+    private List<UUID> missing;
+}
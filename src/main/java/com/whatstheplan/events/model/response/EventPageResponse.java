@@ -0,0 +1,17 @@
+package com.whatstheplan.events.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventPageResponse {
+    private List<EventResponse> events;
+    private String next;
+}
@@ -1,5 +1,7 @@
 package com.whatstheplan.events.model.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.whatstheplan.events.model.Recurrence;
 import com.whatstheplan.events.model.entities.Category;
 import com.whatstheplan.events.model.entities.Event;
@@ -11,13 +13,14 @@ import lombok.experimental.SuperBuilder;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import static com.whatstheplan.events.utils.RecurrenceUtils.parseRRule;
 
 @Data
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class EventResponse {
@@ -27,9 +30,19 @@ public class EventResponse {
     private LocalDateTime dateTime;
     private Duration duration;
     private String location;
+    private Double latitude;
+    private Double longitude;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Float relevance;
     private Integer capacity;
     private String imageKey;
     private Recurrence recurrence;
+    @JsonIgnore
+    private String recurrenceRule;
+    @JsonIgnore
+    private boolean windowVerified;
     private UUID organizerId;
     private String organizerUsername;
     private String organizerEmail;
@@ -45,9 +58,12 @@ public class EventResponse {
                 .dateTime(event.getDateTime())
                 .duration(event.getDuration())
                 .location(event.getLocation())
+                .latitude(event.getLatitude())
+                .longitude(event.getLongitude())
                 .capacity(event.getCapacity())
                 .imageKey(event.getImageKey())
                 .recurrence(parseRRule(event.getRecurrence()))
+                .recurrenceRule(event.getRecurrence())
                 .organizerId(event.getOrganizerId())
                 .organizerEmail("") //TODO
                 .organizerUsername("") //TODO
@@ -56,5 +72,13 @@ public class EventResponse {
                 .activityTypes(activityTypes.stream().map(Category::getName).toList())
                 .build();
     }
+
+    // Keeps the concrete response type, so a summary row stays a summary row.
+    public EventResponse copy() {
+        return toBuilder()
+                .recurrence(recurrence == null ? null : recurrence.copy())
+                .activityTypes(activityTypes == null ? null : new ArrayList<>(activityTypes))
+                .build();
+    }
 }
 
@@ -0,0 +1,13 @@
+package com.whatstheplan.events.model.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+// Search rows of the SUMMARY view. The description is not selected for them, so it is left out of the JSON rather
+// than reported as null; every other response keeps the field.
+@SuperBuilder(toBuilder = true)
+@NoArgsConstructor
+@JsonIgnoreProperties("description")
+public class EventSummaryResponse extends EventResponse {
+}
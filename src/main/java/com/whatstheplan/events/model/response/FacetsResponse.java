@@ -0,0 +1,19 @@
+package com.whatstheplan.events.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetsResponse {
+    private long total;
+    private Map<String, Long> activityTypes;
+    private Map<String, Long> capacity;
+    private Map<String, Long> duration;
+}
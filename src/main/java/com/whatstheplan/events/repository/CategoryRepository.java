@@ -1,6 +1,8 @@
 package com.whatstheplan.events.repository;
 
 import com.whatstheplan.events.model.entities.Category;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Mono;
 
@@ -9,4 +11,29 @@ import java.util.UUID;
 public interface CategoryRepository extends ReactiveCrudRepository<Category, UUID> {
 
     Mono<Category> findByName(String name);
+
+    // Returns the stored row whether this call inserted it or the name already existed.
+    @Query("""
+            /* insertCategory */
+            WITH inserted AS (
+                INSERT INTO category (id, name)
+                VALUES (:id, :name)
+                ON CONFLICT (name) DO NOTHING
+                RETURNING id, name
+            )
+            SELECT id, name FROM inserted
+            UNION ALL
+            SELECT id, name FROM category WHERE name = :name
+            LIMIT 1
+            """)
+    Mono<Category> insertIfAbsent(UUID id, String name);
+
+    @Modifying
+    @Query("""
+            /* seedCategories */
+            INSERT INTO category (id, name)
+            SELECT * FROM unnest(CAST(:ids AS UUID[]), CAST(:names AS VARCHAR[]))
+            ON CONFLICT (name) DO NOTHING
+            """)
+    Mono<Long> insertAllIfAbsent(String[] ids, String[] names);
 }
@@ -1,9 +1,29 @@
 package com.whatstheplan.events.repository;
 
+import com.whatstheplan.events.model.FacetCandidate;
+import com.whatstheplan.events.model.FacetCount;
+import com.whatstheplan.events.model.SearchValidator;
+import com.whatstheplan.events.model.SearchView;
 import com.whatstheplan.events.model.request.EventFilterRequest;
 import com.whatstheplan.events.model.response.EventResponse;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
 
 public interface CustomEventRepository {
     Flux<EventResponse> searchEvents(EventFilterRequest filter);
+
+    Flux<EventResponse> findSearchRowsByIds(List<UUID> ids, SearchView view);
+
+    Mono<EventResponse> findResponseById(UUID id);
+
+    Flux<EventResponse> findResponsesByIds(List<UUID> ids);
+
+    Flux<FacetCount> countFacets(EventFilterRequest filter);
+
+    Flux<FacetCandidate> findFacetCandidates(EventFilterRequest filter);
+
+    Mono<SearchValidator> findSearchValidator(EventFilterRequest filter);
 }
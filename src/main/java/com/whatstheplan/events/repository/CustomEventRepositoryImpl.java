@@ -1,106 +1,287 @@
 package com.whatstheplan.events.repository;
 
+import com.whatstheplan.events.model.ActivityType;
+import com.whatstheplan.events.model.CompiledRecurrence;
+import com.whatstheplan.events.model.FacetCandidate;
+import com.whatstheplan.events.model.FacetCount;
+import com.whatstheplan.events.model.SearchCursor;
+import com.whatstheplan.events.model.SearchSort;
+import com.whatstheplan.events.model.SearchValidator;
+import com.whatstheplan.events.model.SearchView;
 import com.whatstheplan.events.model.request.EventFilterRequest;
 import com.whatstheplan.events.model.response.EventResponse;
+import com.whatstheplan.events.model.response.EventSummaryResponse;
+import com.whatstheplan.events.repository.SearchStatementShapes.Filter;
+import com.whatstheplan.events.repository.SearchStatementShapes.Kind;
+import com.whatstheplan.events.repository.SearchStatementShapes.Shape;
+import com.whatstheplan.events.utils.GeoHashUtils;
+import com.whatstheplan.events.utils.RecurrenceRuleCache;
 import io.r2dbc.postgresql.codec.Interval;
 import io.r2dbc.spi.Parameters;
 import org.springframework.r2dbc.core.DatabaseClient;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
-import static com.whatstheplan.events.utils.RecurrenceUtils.parseRRule;
-
 public class CustomEventRepositoryImpl implements CustomEventRepository {
+    private static final int FETCH_SIZE = 100;
+    // Bounds bound in place of an unset range filter, and the value a missing column is replaced with. The excluded
+    // sentinels sit below every floor, so a row without the column only matches while its range is unfiltered.
+    private static final Duration DURATION_FLOOR = Duration.ofDays(-36500);
+    private static final Duration DURATION_CEILING = Duration.ofDays(36500);
+    private static final Duration DURATION_EXCLUDED = DURATION_FLOOR.minusDays(1);
+    private static final int CAPACITY_FLOOR = Integer.MIN_VALUE + 1;
+    private static final int CAPACITY_EXCLUDED = Integer.MIN_VALUE;
+
     private final DatabaseClient databaseClient;
+    private final RecurrenceRuleCache recurrenceRuleCache;
+    private final SearchStatementShapes searchStatementShapes;
 
-    public CustomEventRepositoryImpl(DatabaseClient databaseClient) {
+    public CustomEventRepositoryImpl(DatabaseClient databaseClient,
+                                     RecurrenceRuleCache recurrenceRuleCache,
+                                     SearchStatementShapes searchStatementShapes) {
         this.databaseClient = databaseClient;
+        this.recurrenceRuleCache = recurrenceRuleCache;
+        this.searchStatementShapes = searchStatementShapes;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public Flux<EventResponse> searchEvents(EventFilterRequest filter) {
-        StringBuilder sql = new StringBuilder("""
-                    SELECT
-                        e.*,
-                        COALESCE(array_agg(c.name) FILTER (WHERE c.name IS NOT NULL), '{}'::VARCHAR[]) AS activity_types 
-                    FROM event e 
-                    LEFT JOIN event_categories ec ON e.id = ec.event_id 
-                    LEFT JOIN category c ON ec.category_id = c.id 
-                    WHERE 1=1
-                """);
-
-        Map<String, Object> params = new HashMap<>();
+        return execute(statementFor(filter));
+    }
 
-        if (filter.getLocation() != null && !filter.getLocation().isEmpty()) {
-            sql.append(" AND e.location = :location");
-            params.put("location", filter.getLocation());
-        }
-        if (filter.getDurationFrom() != null) {
-            sql.append(" AND e.duration >= :durationFrom");
-            params.put("durationFrom", Interval.from(filter.getDurationFrom()));
+    @Override
+    public Flux<EventResponse> findSearchRowsByIds(List<UUID> ids, SearchView view) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
         }
-        if (filter.getDurationTo() != null) {
-            sql.append(" AND e.duration <= :durationTo");
-            params.put("durationTo", Interval.from(filter.getDurationTo()));
+        return execute(byIdsStatement(ids, view));
+    }
+
+    @Override
+    public Mono<EventResponse> findResponseById(UUID id) {
+        return execute(byIdStatement(id)).next();
+    }
+
+    @Override
+    public Flux<EventResponse> findResponsesByIds(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
         }
-        if (filter.getCapacityMin() != null) {
-            sql.append(" AND e.capacity >= :capacityMin");
-            params.put("capacityMin", filter.getCapacityMin());
+        return execute(eventsByIdsStatement(ids));
+    }
+
+    @Override
+    public Flux<FacetCount> countFacets(EventFilterRequest filter) {
+        SearchStatement statement = filterStatement(Kind.FACETS, filter);
+        return databaseClient.sql(statement.sql())
+                .bindValues(statement.params())
+                .map((row, rowMetadata) -> new FacetCount(
+                        row.get("facet", String.class),
+                        row.get("bucket", Integer.class),
+                        Objects.requireNonNull(row.get("count", Long.class))))
+                .all();
+    }
+
+    @Override
+    public Flux<FacetCandidate> findFacetCandidates(EventFilterRequest filter) {
+        SearchStatement statement = filterStatement(Kind.FACET_CANDIDATES, filter);
+        return databaseClient.sql(statement.sql())
+                .bindValues(statement.params())
+                .map((row, rowMetadata) -> {
+                    Interval duration = row.get("duration", Interval.class);
+                    Long activityMask = row.get("activity_mask", Long.class);
+                    return new FacetCandidate(
+                            row.get("id", UUID.class),
+                            row.get("date_time", LocalDateTime.class),
+                            row.get("recurrence", String.class),
+                            row.get("capacity", Integer.class),
+                            duration != null ? duration.getDuration() : null,
+                            activityMask != null ? activityMask : 0);
+                })
+                .all();
+    }
+
+    @Override
+    public Mono<SearchValidator> findSearchValidator(EventFilterRequest filter) {
+        SearchStatement statement = statementFor(Kind.SEARCH_VALIDATOR, filter);
+        return databaseClient.sql(statement.sql())
+                .bindValues(statement.params())
+                .map((row, rowMetadata) -> new SearchValidator(
+                        Objects.requireNonNull(row.get("count", Long.class)),
+                        row.get("last_modified", Instant.class),
+                        row.get("ids", String.class)))
+                .one();
+    }
+
+    SearchStatement statementFor(EventFilterRequest filter) {
+        return statementFor(Kind.SEARCH, filter);
+    }
+
+    // The validator reads the same window as the page, so it shares its shape apart from the selected columns.
+    SearchStatement statementFor(Kind kind, EventFilterRequest filter) {
+        boolean geo = isGeo(filter);
+        boolean text = isText(filter);
+        SearchSort sort = sortFor(filter, geo, text);
+        SearchCursor cursor = sort == SearchSort.DATE ? SearchCursor.decode(filter.getCursor()) : null;
+
+        Map<String, Object> params = filterParams(filter, geo, text);
+        params.put("limit", orTypedNull(filter.getLimit(), Integer.class));
+        if (cursor != null) {
+            params.put("cursorDateTime", cursor.dateTime());
+            params.put("cursorId", cursor.id());
         }
-        if (filter.getCapacityMax() != null) {
-            sql.append(" AND e.capacity <= :capacityMax");
-            params.put("capacityMax", filter.getCapacityMax());
+
+        SearchView view = kind == Kind.SEARCH && filter.getView() != null ? filter.getView() : SearchView.FULL;
+        Shape shape = new Shape(kind, geo, text, cursor != null, sort, view, filtersOf(filter));
+        return new SearchStatement(searchStatementShapes.sql(shape), params, shape);
+    }
+
+    SearchStatement byIdStatement(UUID id) {
+        Shape shape = new Shape(Kind.BY_ID, false, false, false, SearchSort.DATE, SearchView.FULL);
+        return new SearchStatement(searchStatementShapes.sql(shape), Map.of("id", id), shape);
+    }
+
+    SearchStatement eventsByIdsStatement(List<UUID> ids) {
+        Shape shape = new Shape(Kind.EVENTS_BY_IDS, false, false, false, SearchSort.DATE, SearchView.FULL);
+        Map<String, Object> params = Map.of("ids", ids.stream().map(UUID::toString).toArray(String[]::new));
+        return new SearchStatement(searchStatementShapes.sql(shape), params, shape);
+    }
+
+    SearchStatement byIdsStatement(List<UUID> ids, SearchView view) {
+        Shape shape = new Shape(Kind.BY_IDS, false, false, false, SearchSort.DATE,
+                view != null ? view : SearchView.FULL);
+        Map<String, Object> params = Map.of("ids", ids.stream().map(UUID::toString).toArray(String[]::new));
+        return new SearchStatement(searchStatementShapes.sql(shape), params, shape);
+    }
+
+    SearchStatement filterStatement(Kind kind, EventFilterRequest filter) {
+        boolean geo = isGeo(filter);
+        boolean text = isText(filter);
+        Shape shape = new Shape(kind, geo, text, false, SearchSort.DATE, SearchView.FULL, filtersOf(filter));
+        return new SearchStatement(searchStatementShapes.sql(shape), filterParams(filter, geo, text), shape);
+    }
+
+    private static Map<String, Object> filterParams(EventFilterRequest filter, boolean geo, boolean text) {
+        Map<String, Object> params = new HashMap<>();
+        Set<Filter> filters = filtersOf(filter);
+        if (filters.contains(Filter.LOCATION)) {
+            params.put("location", filter.getLocation());
         }
-        if (filter.getActivityTypes() != null && !filter.getActivityTypes().isEmpty()) {
-            sql.append(" AND e.id IN (SELECT ec.event_id FROM event_categories ec " +
-                    "JOIN category c ON ec.category_id = c.id WHERE c.name IN (:categories))");
-            params.put("categories", Parameters.in(filter.getActivityTypes()));
+        boolean durationFiltered = filter.getDurationFrom() != null || filter.getDurationTo() != null;
+        params.put("durationFrom", Interval.from(Objects.requireNonNullElse(filter.getDurationFrom(), DURATION_FLOOR)));
+        params.put("durationTo", Interval.from(Objects.requireNonNullElse(filter.getDurationTo(), DURATION_CEILING)));
+        params.put("durationIfNull", Interval.from(durationFiltered ? DURATION_EXCLUDED : Duration.ZERO));
+        boolean capacityFiltered = filter.getCapacityMin() != null || filter.getCapacityMax() != null;
+        params.put("capacityMin", Objects.requireNonNullElse(filter.getCapacityMin(), CAPACITY_FLOOR));
+        params.put("capacityMax", Objects.requireNonNullElse(filter.getCapacityMax(), Integer.MAX_VALUE));
+        params.put("capacityIfNull", capacityFiltered ? CAPACITY_EXCLUDED : 0);
+        if (filters.contains(Filter.ACTIVITY_TYPES)) {
+            params.put("activityMask", ActivityType.mask(filter.getActivityTypes()));
         }
-
-        sql.append(" AND (e.recurrence IS NOT NULL OR e.date_time >= :after)");
         params.put("after", filter.getDateTimeFrom());
-        sql.append(" AND (e.recurrence IS NOT NULL OR e.date_time <= :before)");
         params.put("before", filter.getDateTimeTo());
 
-        sql.append(" GROUP BY e.id");
-        sql.append(" ORDER BY e.date_time ASC");
+        if (text) {
+            params.put("q", filter.getQ().trim());
+        }
+        if (geo) {
+            List<String> cells = GeoHashUtils.coveringCells(filter.getLat(), filter.getLon(), filter.getRadiusKm());
+            for (int i = 0; i < SearchStatementShapes.GEO_CELLS; i++) {
+                String cell = cells.isEmpty() ? "" : cells.get(Math.min(i, cells.size() - 1));
+                params.put("cell" + i, cell);
+                params.put("cellEnd" + i, cell + "~");
+            }
+            params.put("lat", filter.getLat());
+            params.put("lon", filter.getLon());
+            params.put("radiusKm", filter.getRadiusKm());
+        }
+        return params;
+    }
 
-        return databaseClient.sql(sql.toString())
-                .bindValues(params)
+    Flux<EventResponse> execute(SearchStatement searchStatement) {
+        boolean geo = searchStatement.shape().geo();
+        boolean text = searchStatement.shape().text();
+        boolean full = searchStatement.shape().view() == SearchView.FULL;
+        boolean search = searchStatement.shape().kind() == Kind.SEARCH;
+        boolean categories = searchStatement.shape().kind() == Kind.BY_ID
+                || searchStatement.shape().kind() == Kind.EVENTS_BY_IDS;
+        return databaseClient.sql(searchStatement.sql())
+                .bindValues(searchStatement.params())
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
                 .map((row, rowMetadata) -> {
-                    EventResponse response = EventResponse.builder()
+                    CompiledRecurrence recurrence = recurrenceRuleCache.get(row.get("recurrence", String.class));
+                    Long activityMask = row.get("activity_mask", Long.class);
+                    Interval duration = row.get("duration", Interval.class);
+                    EventResponse.EventResponseBuilder<?, ?> builder =
+                            full ? EventResponse.builder() : EventSummaryResponse.builder();
+                    return builder
                             .id(row.get("id", UUID.class))
                             .title(row.get("title", String.class))
-                            .description(row.get("description", String.class))
+                            .description(full ? row.get("description", String.class) : null)
                             .dateTime(row.get("date_time", LocalDateTime.class))
-                            .duration(Objects.requireNonNull(row.get("duration", Interval.class)).getDuration())
+                            .duration(duration != null ? duration.getDuration() : null)
                             .location(row.get("location", String.class))
+                            .latitude(row.get("latitude", Double.class))
+                            .longitude(row.get("longitude", Double.class))
+                            .distanceKm(geo ? row.get("distance_km", Double.class) : null)
+                            .relevance(text ? row.get("rank", Float.class) : null)
                             .capacity(row.get("capacity", Integer.class))
                             .imageKey(row.get("image_key", String.class))
                             .organizerId(row.get("organizer_id", UUID.class))
-                            .recurrence(parseRRule(row.get("recurrence", String.class)))
+                            .recurrence(recurrence != null ? recurrence.recurrence() : null)
+                            .recurrenceRule(recurrence != null ? recurrence.rule() : null)
+                            .windowVerified(search && Boolean.TRUE.equals(row.get("window_verified", Boolean.class)))
                             .createdDate(row.get("created_date", Instant.class))
                             .lastModifiedDate(row.get("last_modified_date", Instant.class))
+                            .activityTypes(categories
+                                    ? List.of(Objects.requireNonNull(row.get("activity_types", String[].class)))
+                                    : ActivityType.namesFromMask(activityMask != null ? activityMask : 0))
                             .build();
-
-                    String[] activityTypesArray = row.get("activity_types", String[].class);
-                    List<String> activityTypesList = activityTypesArray != null
-                            ? Arrays.asList(activityTypesArray)
-                            : Collections.emptyList();
-                    response.setActivityTypes(activityTypesList);
-
-                    return response;
                 })
                 .all();
     }
+
+    private static Object orTypedNull(Object value, Class<?> type) {
+        return value != null ? value : Parameters.in(type);
+    }
+
+    private static Set<Filter> filtersOf(EventFilterRequest filter) {
+        EnumSet<Filter> filters = EnumSet.noneOf(Filter.class);
+        if (filter.getLocation() != null && !filter.getLocation().isEmpty()) {
+            filters.add(Filter.LOCATION);
+        }
+        if (ActivityType.mask(filter.getActivityTypes()) != 0) {
+            filters.add(Filter.ACTIVITY_TYPES);
+        }
+        return filters;
+    }
+
+    private static boolean isGeo(EventFilterRequest filter) {
+        return filter.getLat() != null && filter.getLon() != null && filter.getRadiusKm() != null;
+    }
+
+    private static boolean isText(EventFilterRequest filter) {
+        return filter.getQ() != null && !filter.getQ().isBlank();
+    }
+
+    private static SearchSort sortFor(EventFilterRequest filter, boolean geo, boolean text) {
+        if (filter.getSort() == SearchSort.DISTANCE && geo || filter.getSort() == SearchSort.RELEVANCE && text) {
+            return filter.getSort();
+        }
+        return SearchSort.DATE;
+    }
+
+    record SearchStatement(String sql, Map<String, Object> params, Shape shape) {
+    }
 }
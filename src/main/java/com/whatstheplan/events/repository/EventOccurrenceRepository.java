@@ -0,0 +1,114 @@
+package com.whatstheplan.events.repository;
+
+import com.whatstheplan.events.model.OccurrenceExpansion;
+import com.whatstheplan.events.model.PendingSeries;
+import io.r2dbc.postgresql.codec.Interval;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class EventOccurrenceRepository {
+
+    private static final String REPLACE_OCCURRENCES = """
+            /* replaceOccurrences */
+            WITH deleted AS (
+                DELETE FROM event_occurrence
+                WHERE event_id = :eventId
+                  AND NOT (start_time = ANY (CAST(:starts AS TIMESTAMPTZ[])))
+            ), inserted AS (
+                INSERT INTO event_occurrence (event_id, start_time, end_time)
+                SELECT :eventId, s, s + CAST(:duration AS INTERVAL)
+                FROM unnest(CAST(:starts AS TIMESTAMPTZ[])) AS s
+                ON CONFLICT (event_id, start_time) DO UPDATE SET end_time = EXCLUDED.end_time
+            )
+            UPDATE event
+            SET occurrences_until = CASE WHEN :complete THEN 'infinity'::TIMESTAMPTZ ELSE :materializedUntil END
+            WHERE id = :eventId
+              AND active_until = (SELECT active_until FROM event_id_lookup WHERE id = :eventId)
+            """;
+
+    private static final String EXTEND_OCCURRENCES = """
+            /* extendOccurrences */
+            WITH inserted AS (
+                INSERT INTO event_occurrence (event_id, start_time, end_time)
+                SELECT :eventId, s, s + CAST(:duration AS INTERVAL)
+                FROM unnest(CAST(:starts AS TIMESTAMPTZ[])) AS s
+                ON CONFLICT (event_id, start_time) DO NOTHING
+            )
+            UPDATE event
+            SET occurrences_until = CASE WHEN :complete THEN 'infinity'::TIMESTAMPTZ ELSE :materializedUntil END
+            WHERE id = :eventId
+              AND active_until = (SELECT active_until FROM event_id_lookup WHERE id = :eventId)
+            """;
+
+    private static final String FIND_PENDING_SERIES = """
+            /* findPendingSeries */
+            SELECT id, date_time, duration, recurrence, occurrences_until
+            FROM event
+            WHERE date_time IS NOT NULL
+              AND (occurrences_until IS NULL OR occurrences_until < :target)
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> replace(UUID eventId, Duration duration, OccurrenceExpansion expansion) {
+        return write(REPLACE_OCCURRENCES, eventId, duration, expansion);
+    }
+
+    public Mono<Void> extend(UUID eventId, Duration duration, OccurrenceExpansion expansion) {
+        return write(EXTEND_OCCURRENCES, eventId, duration, expansion);
+    }
+
+    public Flux<PendingSeries> findPendingSeries(LocalDateTime target) {
+        return databaseClient.sql(FIND_PENDING_SERIES)
+                .bind("target", target.atOffset(ZoneOffset.UTC))
+                .map((row, rowMetadata) -> new PendingSeries(
+                        row.get("id", UUID.class),
+                        utc(row.get("date_time", OffsetDateTime.class)),
+                        Optional.ofNullable(row.get("duration", Interval.class))
+                                .map(Interval::getDuration)
+                                .orElse(Duration.ZERO),
+                        row.get("recurrence", String.class),
+                        utc(row.get("occurrences_until", OffsetDateTime.class))))
+                .all();
+    }
+
+    public Flux<LocalDateTime> findStartTimes(UUID eventId) {
+        return databaseClient.sql("SELECT start_time FROM event_occurrence WHERE event_id = :eventId ORDER BY start_time")
+                .bind("eventId", eventId)
+                .map((row, rowMetadata) -> utc(row.get("start_time", OffsetDateTime.class)))
+                .all();
+    }
+
+    private static LocalDateTime utc(OffsetDateTime value) {
+        return value != null ? value.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime() : null;
+    }
+
+    private Mono<Void> write(String sql, UUID eventId, Duration duration, OccurrenceExpansion expansion) {
+        // Starts carry an explicit offset so the TIMESTAMPTZ cast does not depend on the session time zone.
+        String[] starts = expansion.starts().stream()
+                .map(start -> start.atOffset(ZoneOffset.UTC).toString())
+                .toArray(String[]::new);
+
+        return databaseClient.sql(sql)
+                .bind("eventId", eventId)
+                .bind("starts", starts)
+                .bind("duration", Interval.from(duration == null ? Duration.ZERO : duration))
+                .bind("complete", expansion.complete())
+                .bind("materializedUntil", expansion.materializedUntil().atOffset(ZoneOffset.UTC))
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+}
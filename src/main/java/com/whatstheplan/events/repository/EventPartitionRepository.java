@@ -0,0 +1,48 @@
+package com.whatstheplan.events.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class EventPartitionRepository {
+
+    private static final String CREATE_PARTITION = """
+            SELECT p FROM create_event_partition(:month) AS p
+            WHERE p IS NOT NULL
+            """;
+
+    private static final String ARCHIVE_PARTITIONS = "SELECT p FROM archive_event_partitions(:before) AS p";
+
+    private static final String FIND_PARTITION = "SELECT CAST(tableoid::regclass AS TEXT) AS p FROM event WHERE id = :eventId";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<String> createPartition(LocalDate month) {
+        return databaseClient.sql(CREATE_PARTITION)
+                .bind("month", month.withDayOfMonth(1))
+                .map((row, rowMetadata) -> row.get("p", String.class))
+                .one();
+    }
+
+    public Flux<String> archivePartitions(LocalDateTime before) {
+        return databaseClient.sql(ARCHIVE_PARTITIONS)
+                .bind("before", before)
+                .map((row, rowMetadata) -> row.get("p", String.class))
+                .all();
+    }
+
+    public Mono<String> findPartition(UUID eventId) {
+        return databaseClient.sql(FIND_PARTITION)
+                .bind("eventId", eventId)
+                .map((row, rowMetadata) -> row.get("p", String.class))
+                .one();
+    }
+}
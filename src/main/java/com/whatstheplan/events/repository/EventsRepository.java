@@ -1,15 +1,19 @@
 package com.whatstheplan.events.repository;
 
 import com.whatstheplan.events.model.entities.Event;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public interface EventsRepository extends ReactiveCrudRepository<Event, UUID>, CustomEventRepository {
 
     @Query("""
+            /* insert */
             INSERT INTO event (
                 id, 
                 title, 
@@ -17,12 +21,18 @@ public interface EventsRepository extends ReactiveCrudRepository<Event, UUID>, C
                 date_time, 
                 duration, 
                 location, 
+                latitude, 
+                longitude, 
+                geohash, 
                 capacity, 
                 image_key, 
                 recurrence, 
+                series_end, 
+                activity_mask, 
                 organizer_id, 
                 created_date, 
-                last_modified_date
+                last_modified_date, 
+                active_until
             ) VALUES (
                 :#{#event.id}, 
                 :#{#event.title}, 
@@ -30,18 +40,28 @@ public interface EventsRepository extends ReactiveCrudRepository<Event, UUID>, C
                 :#{#event.dateTime}, 
                 CAST(:#{#event.duration} AS INTERVAL), 
                 :#{#event.location}, 
+                :#{#event.latitude}, 
+                :#{#event.longitude}, 
+                :#{#event.geohash}, 
                 :#{#event.capacity}, 
                 :#{#event.imageKey}, 
                 :#{#event.recurrence}, 
+                :#{#event.seriesEnd}, 
+                COALESCE(:#{#event.activityMask}, 0), 
                 :#{#event.organizerId}, 
                 :#{#event.createdDate}, 
-                :#{#event.lastModifiedDate}
+                :#{#event.lastModifiedDate}, 
+                event_active_until(
+                    CAST(:#{#event.recurrence} AS TEXT),
+                    CAST(:#{#event.dateTime} AS TIMESTAMP),
+                    CAST(:#{#event.seriesEnd} AS TIMESTAMP))
             )
             RETURNING *
             """)
     Mono<Event> insert(Event event);
 
     @Query("""
+            /* update */
             UPDATE event
             SET
                 title = :#{#event.title},
@@ -49,13 +69,56 @@ public interface EventsRepository extends ReactiveCrudRepository<Event, UUID>, C
                 date_time = :#{#event.dateTime},
                 duration = CAST(:#{#event.duration} AS INTERVAL),
                 location = :#{#event.location},
+                latitude = :#{#event.latitude},
+                longitude = :#{#event.longitude},
+                geohash = :#{#event.geohash},
                 capacity = :#{#event.capacity},
                 image_key = :#{#event.imageKey},
                 recurrence = :#{#event.recurrence},
+                series_end = :#{#event.seriesEnd},
+                activity_mask = COALESCE(:#{#event.activityMask}, 0),
                 organizer_id = :#{#event.organizerId},
-                last_modified_date = :#{#event.lastModifiedDate}
+                last_modified_date = :#{#event.lastModifiedDate},
+                active_until = event_active_until(
+                    CAST(:#{#event.recurrence} AS TEXT),
+                    CAST(:#{#event.dateTime} AS TIMESTAMP),
+                    CAST(:#{#event.seriesEnd} AS TIMESTAMP))
             WHERE id = :#{#event.id}
+              AND active_until = (SELECT active_until FROM event_id_lookup WHERE id = :#{#event.id})
             RETURNING *
             """)
     Mono<Event> update(Event event);
+
+    // Reads and deletes by id take the partition key from event_id_lookup so only one partition is touched.
+    @Override
+    @Query("""
+            /* findById */
+            SELECT e.* FROM event_id_lookup l
+            JOIN event e ON e.id = l.id AND e.active_until = l.active_until
+            WHERE l.id = :id
+            """)
+    Mono<Event> findById(UUID id);
+
+    @Override
+    @Modifying
+    @Query("""
+            /* deleteById */
+            DELETE FROM event
+            WHERE id = :id
+              AND active_until = (SELECT active_until FROM event_id_lookup WHERE id = :id)
+            """)
+    Mono<Void> deleteById(UUID id);
+
+    // True when the event's partition was archived, empty when the id is unknown.
+    @Query("SELECT archived_in IS NOT NULL FROM event_id_lookup WHERE id = :id")
+    Mono<Boolean> isArchived(UUID id);
+
+    @Query("""
+            /* findUpcoming */
+            SELECT * FROM event
+            WHERE active_until >= :from
+              AND ((recurrence IS NULL AND date_time >= :from)
+               OR (recurrence IS NOT NULL AND date_time IS NOT NULL AND (series_end IS NULL OR series_end >= :from)))
+            """)
+    Flux<Event> findUpcoming(LocalDateTime from);
 }
@@ -0,0 +1,79 @@
+package com.whatstheplan.events.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.proxy.core.ConnectionInfo;
+import io.r2dbc.proxy.core.ExecutionType;
+import io.r2dbc.proxy.core.MethodExecutionInfo;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.proxy.listener.ProxyExecutionListener;
+import io.r2dbc.spi.Connection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Counts how often a statement finds its prepared statement in the driver cache. The driver keeps a least recently
+// used cache of prepared statements per connection and does not report on it, so this listener mirrors it: one
+// cache of the same size per physical connection, keyed by statement text. Only statements with bindings are
+// prepared; the others run through the simple query protocol and are not counted.
+public class PreparedStatementCacheListener implements ProxyExecutionListener {
+
+    static final String COUNTER = "events.db.statement.cache";
+
+    private final MeterRegistry meterRegistry;
+    private final int cacheSize;
+    private final Map<String, Map<String, Boolean>> prepared = new ConcurrentHashMap<>();
+
+    public PreparedStatementCacheListener(MeterRegistry meterRegistry, int cacheSize) {
+        this.meterRegistry = meterRegistry;
+        this.cacheSize = cacheSize;
+    }
+
+    @Override
+    public void beforeQuery(QueryExecutionInfo execInfo) {
+        ConnectionInfo connection = execInfo.getConnectionInfo();
+        if (connection == null || execInfo.getType() != ExecutionType.STATEMENT || execInfo.getQueries().isEmpty()) {
+            return;
+        }
+        QueryInfo query = execInfo.getQueries().get(0);
+        if (query.getBindingsList().isEmpty()) {
+            return;
+        }
+        Map<String, Boolean> statements = prepared.computeIfAbsent(connection.getConnectionId(), id -> lruOf(cacheSize));
+        boolean hit;
+        synchronized (statements) {
+            hit = statements.put(query.getQuery(), Boolean.TRUE) != null;
+        }
+        Counter.builder(COUNTER)
+                .description("Statements executed with bindings, by whether their prepared statement was cached")
+                .tag("origin", StatementMetricsListener.origin(query.getQuery()))
+                .tag("result", hit ? "hit" : "miss")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // The driver cache lives and dies with the physical connection.
+    @Override
+    public void afterMethod(MethodExecutionInfo executionInfo) {
+        if (executionInfo.getTarget() instanceof Connection
+                && "close".equals(executionInfo.getMethod().getName())
+                && executionInfo.getConnectionInfo() != null) {
+            prepared.remove(executionInfo.getConnectionInfo().getConnectionId());
+        }
+    }
+
+    int connections() {
+        return prepared.size();
+    }
+
+    private static Map<String, Boolean> lruOf(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+}
@@ -0,0 +1,277 @@
+package com.whatstheplan.events.repository;
+
+import com.whatstheplan.events.model.SearchSort;
+import com.whatstheplan.events.model.SearchView;
+import com.whatstheplan.events.utils.FacetBuckets;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class SearchStatementShapes {
+
+    public static final int GEO_CELLS = 9;
+
+    static final String DISTANCE_KM = "6371.0088 * 2 * asin(least(1, sqrt("
+            + "power(sin(radians(e.latitude - :lat) / 2), 2) "
+            + "+ cos(radians(:lat)) * cos(radians(e.latitude)) * power(sin(radians(e.longitude - :lon) / 2), 2))))";
+    private static final String MATERIALIZED_IN_WINDOW = "EXISTS (SELECT 1 FROM event_occurrence m "
+            + "WHERE m.event_id = e.id AND m.start_time >= :after AND m.start_time <= :before)";
+
+    private final Map<Shape, String> statements = new ConcurrentHashMap<>();
+
+    // Rendered shapes bound how many distinct statements the driver prepared statement cache has to hold.
+    public SearchStatementShapes(MeterRegistry meterRegistry) {
+        Gauge.builder("events.search.statement.shapes", statements, Map::size)
+                .description("Distinct search statement shapes rendered")
+                .register(meterRegistry);
+    }
+
+    public String sql(Shape shape) {
+        return statements.computeIfAbsent(shape, SearchStatementShapes::render);
+    }
+
+    // The leading comment names the repository method, which is how statement metrics tag their origin.
+    static String render(Shape shape) {
+        return "/* " + shape.kind().origin() + " */\n" + switch (shape.kind()) {
+            case SEARCH -> renderSearch(shape);
+            case FACETS -> renderFacets(shape);
+            case FACET_CANDIDATES -> renderFacetCandidates(shape);
+            case BY_IDS -> renderByIds(shape);
+            case BY_ID -> renderById(shape);
+            case EVENTS_BY_IDS -> renderEventsByIds(shape);
+            case SEARCH_VALIDATOR -> renderSearchValidator(shape);
+        };
+    }
+
+    private static String renderSearch(Shape shape) {
+        StringBuilder sql = new StringBuilder();
+        appendColumns(sql, shape);
+        // Rows with an occurrence proven in the window by SQL skip the recurrence check in the service. A series
+        // materialized past :before can only have matched through event_occurrence, so it needs no probe.
+        sql.append(",\n    (e.recurrence IS NULL OR e.occurrences_until >= :before OR ")
+                .append(MATERIALIZED_IN_WINDOW).append(") AS window_verified");
+        appendPageWindow(sql, shape);
+        return sql.toString();
+    }
+
+    // Count, newest modification and the set of ids over the same keyset window the page is read from. Rows that
+    // enter or leave the window change the ids, and an edit to a row in it moves the newest modification.
+    private static String renderSearchValidator(Shape shape) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT count(*) AS count, max(w.last_modified_date) AS last_modified,
+                       md5(string_agg(CAST(w.id AS TEXT), ',' ORDER BY w.id)) AS ids
+                FROM (
+                SELECT e.id, e.last_modified_date""");
+        appendPageWindow(sql, shape);
+        sql.append("\n) w");
+        return sql.toString();
+    }
+
+    private static void appendPageWindow(StringBuilder sql, Shape shape) {
+        if (shape.geo()) {
+            sql.append(",\n    ").append(DISTANCE_KM).append(" AS distance_km");
+        }
+        if (shape.text()) {
+            sql.append(",\n    ts_rank(e.search_vector, websearch_to_tsquery('english', :q)) AS rank");
+        }
+        sql.append("\nFROM event e\n");
+        appendFilters(sql, shape);
+
+        if (shape.cursor()) {
+            sql.append("  AND (e.date_time, e.id) > (:cursorDateTime, :cursorId)\n");
+        }
+
+        sql.append(switch (shape.sort()) {
+            case DISTANCE -> "ORDER BY distance_km ASC, e.date_time ASC, e.id ASC\n";
+            case RELEVANCE -> "ORDER BY rank DESC, e.date_time ASC, e.id ASC\n";
+            case DATE -> "ORDER BY e.date_time ASC, e.id ASC\n";
+        });
+        sql.append("LIMIT :limit");
+    }
+
+    private static String renderByIds(Shape shape) {
+        StringBuilder sql = new StringBuilder();
+        appendColumns(sql, shape);
+        sql.append("""
+
+                FROM unnest(CAST(:ids AS UUID[])) WITH ORDINALITY AS r(id, ord)
+                JOIN event_id_lookup l ON l.id = r.id
+                JOIN event e ON e.id = l.id AND e.active_until = l.active_until
+                ORDER BY r.ord""");
+        return sql.toString();
+    }
+
+    // Event reads by id report the categories linked to the event rather than the activity mask. They join through
+    // event_id_lookup for the partition key, so only the partition holding the row is read.
+    private static String renderById(Shape shape) {
+        StringBuilder sql = new StringBuilder();
+        appendColumns(sql, shape);
+        appendCategories(sql);
+        sql.append("""
+
+                FROM event_id_lookup l
+                JOIN event e ON e.id = l.id AND e.active_until = l.active_until
+                WHERE l.id = :id""");
+        return sql.toString();
+    }
+
+    private static String renderEventsByIds(Shape shape) {
+        StringBuilder sql = new StringBuilder();
+        appendColumns(sql, shape);
+        appendCategories(sql);
+        sql.append("""
+
+                FROM unnest(CAST(:ids AS UUID[])) WITH ORDINALITY AS r(id, ord)
+                JOIN event_id_lookup l ON l.id = r.id
+                JOIN event e ON e.id = l.id AND e.active_until = l.active_until
+                ORDER BY r.ord""");
+        return sql.toString();
+    }
+
+    private static void appendCategories(StringBuilder sql) {
+        sql.append(",\n");
+        sql.append("""
+                    ARRAY(SELECT c.name
+                          FROM event_categories ec
+                                   JOIN category c ON c.id = ec.category_id
+                          WHERE ec.event_id = e.id
+                          ORDER BY c.name) AS activity_types""");
+    }
+
+    private static void appendColumns(StringBuilder sql, Shape shape) {
+        sql.append("""
+                SELECT
+                    e.id, e.title, e.date_time, e.duration, e.location, e.latitude, e.longitude,
+                    e.capacity, e.image_key, e.organizer_id, e.recurrence, e.activity_mask,
+                    e.created_date, e.last_modified_date""");
+        if (shape.view() == SearchView.FULL) {
+            sql.append(", e.description");
+        }
+    }
+
+    private static String renderFacets(Shape shape) {
+        StringBuilder sql = new StringBuilder("""
+                WITH candidates AS (
+                SELECT e.capacity, e.duration, e.activity_mask
+                FROM event e
+                """);
+        appendFilters(sql, shape);
+        sql.append("  AND (e.recurrence IS NULL OR ").append(MATERIALIZED_IN_WINDOW).append(")\n");
+        sql.append("""
+                )
+                SELECT 'total' AS facet, 0 AS bucket, count(*) AS count FROM candidates
+                UNION ALL
+                SELECT 'activityType', b.bit, count(*)
+                FROM candidates
+                JOIN generate_series(0, 62) AS b(bit) ON (candidates.activity_mask & (CAST(1 AS BIGINT) << b.bit)) <> 0
+                GROUP BY b.bit
+                UNION ALL
+                """);
+        sql.append("SELECT 'capacity', ").append(FacetBuckets.capacityBucketSql("capacity"))
+                .append(", count(*) FROM candidates GROUP BY 2\n");
+        sql.append("UNION ALL\n");
+        sql.append("SELECT 'duration', ").append(FacetBuckets.durationBucketSql("duration"))
+                .append(", count(*) FROM candidates GROUP BY 2");
+        return sql.toString();
+    }
+
+    private static String renderFacetCandidates(Shape shape) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT e.id, e.date_time, e.recurrence, e.capacity, e.duration, e.activity_mask
+                FROM event e
+                """);
+        appendFilters(sql, shape);
+        sql.append("  AND e.recurrence IS NOT NULL AND NOT ").append(MATERIALIZED_IN_WINDOW);
+        return sql.toString();
+    }
+
+    private static void appendFilters(StringBuilder sql, Shape shape) {
+        // Every row that can match the window is active until at least :after, which prunes the past partitions.
+        // Location and activity types are only rendered when set: a catch-all "param IS NULL OR ..." predicate keeps
+        // the planner from using an index once the driver switches to a generic plan. The range filters are always
+        // rendered with sentinel bounds instead, so they add no shapes; a missing value is replaced by a sentinel
+        // that falls inside the bounds only when the range is unfiltered.
+        sql.append("WHERE e.active_until >= :after\n");
+        for (Filter filter : Filter.values()) {
+            if (shape.filters().contains(filter)) {
+                sql.append("  AND ").append(filter.predicate).append('\n');
+            }
+        }
+        sql.append("  AND COALESCE(e.duration, :durationIfNull) BETWEEN :durationFrom AND :durationTo\n");
+        sql.append("  AND COALESCE(e.capacity, :capacityIfNull) BETWEEN :capacityMin AND :capacityMax\n");
+
+        if (shape.text()) {
+            sql.append("  AND e.search_vector @@ websearch_to_tsquery('english', :q)\n");
+        }
+        if (shape.geo()) {
+            StringJoiner cellRanges = new StringJoiner(" OR ", "  AND (", ")\n");
+            for (int i = 0; i < GEO_CELLS; i++) {
+                cellRanges.add("(e.geohash >= :cell" + i + " AND e.geohash < :cellEnd" + i + ")");
+            }
+            sql.append(cellRanges);
+            sql.append("  AND e.latitude IS NOT NULL AND e.longitude IS NOT NULL\n");
+            sql.append("  AND ").append(DISTANCE_KM).append(" <= :radiusKm\n");
+        }
+
+        sql.append("""
+                  AND e.id IN (
+                      SELECT o.event_id FROM event_occurrence o
+                      WHERE o.start_time >= :after AND o.start_time <= :before
+                      UNION
+                      SELECT p.id FROM event p
+                      WHERE p.active_until >= :after
+                        AND (p.occurrences_until IS NULL OR p.occurrences_until < :before)
+                        AND (p.recurrence IS NOT NULL OR (p.date_time >= :after AND p.date_time <= :before))
+                        AND (p.recurrence IS NULL OR ((p.series_end IS NULL OR p.series_end >= :after) AND p.date_time <= :before)))
+                """);
+    }
+
+    public enum Kind {
+        SEARCH("searchEvents"),
+        FACETS("countFacets"),
+        FACET_CANDIDATES("findFacetCandidates"),
+        BY_IDS("findSearchRowsByIds"),
+        BY_ID("findById"),
+        EVENTS_BY_IDS("findByIds"),
+        SEARCH_VALIDATOR("findSearchValidator");
+
+        private final String origin;
+
+        Kind(String origin) {
+            this.origin = origin;
+        }
+
+        public String origin() {
+            return origin;
+        }
+    }
+
+    public enum Filter {
+        LOCATION("e.location = :location"),
+        ACTIVITY_TYPES("(e.activity_mask & :activityMask) <> 0");
+
+        private final String predicate;
+
+        Filter(String predicate) {
+            this.predicate = predicate;
+        }
+    }
+
+    public record Shape(Kind kind, boolean geo, boolean text, boolean cursor, SearchSort sort, SearchView view,
+                        Set<Filter> filters) {
+
+        public Shape {
+            filters = Set.copyOf(filters);
+        }
+
+        public Shape(Kind kind, boolean geo, boolean text, boolean cursor, SearchSort sort, SearchView view) {
+            this(kind, geo, text, cursor, sort, view, Set.of());
+        }
+    }
+}
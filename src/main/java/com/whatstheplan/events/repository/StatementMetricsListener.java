@@ -0,0 +1,143 @@
+package com.whatstheplan.events.repository;
+
+import com.whatstheplan.events.config.QueryMetricsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.proxy.core.Binding;
+import io.r2dbc.proxy.core.Bindings;
+import io.r2dbc.proxy.core.BoundValue;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.proxy.listener.ProxyExecutionListener;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Statement;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Times every statement executed through the proxied connection factory and tags it by its origin: the leading
+// /* name */ comment when the statement has one, otherwise the verb and table it touches.
+@Slf4j
+public class StatementMetricsListener implements ProxyExecutionListener {
+
+    static final String TIMER = "events.db.statement";
+
+    private static final Pattern ORIGIN_COMMENT = Pattern.compile("^\\s*/\\*\\s*([\\w.-]+)\\s*\\*/");
+    private static final Pattern VERB_AND_TABLE = Pattern.compile(
+            "^\\s*(?:/\\*.*?\\*/\\s*)?(\\w+)\\s+(?:.*?\\b(?:FROM|INTO)\\s+)?\"?([\\w.]+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final QueryMetricsProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConnectionFactory explainConnectionFactory;
+    private final Map<String, Instant> lastExplained = new ConcurrentHashMap<>();
+
+    public StatementMetricsListener(QueryMetricsProperties properties,
+                                    MeterRegistry meterRegistry,
+                                    ConnectionFactory explainConnectionFactory) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.explainConnectionFactory = explainConnectionFactory;
+    }
+
+    @Override
+    public void afterQuery(QueryExecutionInfo execInfo) {
+        if (execInfo.getQueries().isEmpty()) {
+            return;
+        }
+        QueryInfo query = execInfo.getQueries().get(0);
+        String origin = origin(query.getQuery());
+        Duration duration = execInfo.getExecuteDuration();
+
+        Timer.builder(TIMER)
+                .description("Time to execute a database statement, by the repository method that issued it")
+                .tag("origin", origin)
+                .tag("outcome", execInfo.isSuccess() ? "success" : "error")
+                .register(meterRegistry)
+                .record(duration);
+
+        if (duration.compareTo(properties.getSlowThreshold()) > 0) {
+            log.warn("Slow statement {} took {} ms: {}", origin, duration.toMillis(), query.getQuery());
+            if (properties.isExplainSlowQueries() && shouldExplain(origin)) {
+                explain(origin, query).subscribe();
+            }
+        }
+    }
+
+    static String origin(String sql) {
+        Matcher comment = ORIGIN_COMMENT.matcher(sql);
+        if (comment.find()) {
+            return comment.group(1);
+        }
+        Matcher verbAndTable = VERB_AND_TABLE.matcher(sql);
+        if (verbAndTable.find()) {
+            return verbAndTable.group(1).toLowerCase(Locale.ROOT) + " " + verbAndTable.group(2).toLowerCase(Locale.ROOT);
+        }
+        return "other";
+    }
+
+    private boolean shouldExplain(String origin) {
+        Instant now = Instant.now();
+        Instant previous = lastExplained.get(origin);
+        if (previous != null && previous.plus(properties.getExplainInterval()).isAfter(now)) {
+            return false;
+        }
+        return previous == null
+                ? lastExplained.putIfAbsent(origin, now) == null
+                : lastExplained.replace(origin, previous, now);
+    }
+
+    // Plain EXPLAIN plans the statement without running it, so writes are safe to explain as well.
+    private Mono<Void> explain(String origin, QueryInfo query) {
+        return Mono.usingWhen(
+                        explainConnectionFactory.create(),
+                        connection -> explainStatement(connection, query),
+                        Connection::close)
+                .doOnNext(plan -> log.warn("Plan for slow statement {}:\n{}", origin, plan))
+                .onErrorResume(ex -> {
+                    log.debug("Unable to explain slow statement {}: {}", origin, ex.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static Mono<String> explainStatement(Connection connection, QueryInfo query) {
+        Statement statement = connection.createStatement("EXPLAIN " + query.getQuery());
+        if (!query.getBindingsList().isEmpty()) {
+            Bindings bindings = query.getBindingsList().get(0);
+            bindings.getIndexBindings().forEach(binding -> bind(statement, binding, (Integer) binding.getKey()));
+            bindings.getNamedBindings().forEach(binding -> bind(statement, binding, (String) binding.getKey()));
+        }
+        return Flux.from(statement.execute())
+                .flatMap(result -> result.map((row, rowMetadata) -> row.get(0, String.class)))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static void bind(Statement statement, Binding binding, int index) {
+        BoundValue value = binding.getBoundValue();
+        if (value.isNull()) {
+            statement.bindNull(index, value.getNullType());
+        } else {
+            statement.bind(index, value.getValue());
+        }
+    }
+
+    private static void bind(Statement statement, Binding binding, String name) {
+        BoundValue value = binding.getBoundValue();
+        if (value.isNull()) {
+            statement.bindNull(name, value.getNullType());
+        } else {
+            statement.bind(name, value.getValue());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.CategoryDictionaryProperties;
+import com.whatstheplan.events.model.ActivityType;
+import com.whatstheplan.events.model.entities.Category;
+import com.whatstheplan.events.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Categories by name, held as an immutable snapshot that is replaced on every change. Event writes resolve their
+// activity types here without a query; a name missing from the snapshot is inserted once however many writes miss
+// on it at the same time.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryDictionary {
+
+    private final CategoryDictionaryProperties properties;
+    private final CategoryRepository categoryRepository;
+    private final Map<String, Mono<Category>> inFlight = new ConcurrentHashMap<>();
+    private volatile Map<String, Category> snapshot = Map.of();
+    private long generation;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isWarmUp()) {
+            return;
+        }
+        load().subscribe(null, ex -> log.error("Unable to warm up category dictionary", ex));
+    }
+
+    public Mono<Category> resolve(String name) {
+        Category known = snapshot.get(name);
+        if (known != null) {
+            return Mono.just(known);
+        }
+        return inFlight.computeIfAbsent(name, this::insert);
+    }
+
+    // Drops every known category, e.g. after the table was cleared; loads that started earlier are discarded.
+    public synchronized void reset() {
+        generation++;
+        snapshot = Map.of();
+        inFlight.clear();
+    }
+
+    Mono<Void> load() {
+        long loadedGeneration = currentGeneration();
+        String[] names = Arrays.stream(ActivityType.values()).map(ActivityType::getName).toArray(String[]::new);
+        String[] ids = Arrays.stream(names).map(name -> UUID.randomUUID().toString()).toArray(String[]::new);
+        return categoryRepository.insertAllIfAbsent(ids, names)
+                .thenMany(categoryRepository.findAll())
+                .collectList()
+                .doOnNext(categories -> {
+                    publish(categories, loadedGeneration);
+                    log.info("Category dictionary loaded {} categories", categories.size());
+                })
+                .then();
+    }
+
+    private Mono<Category> insert(String name) {
+        long loadedGeneration = currentGeneration();
+        return categoryRepository.insertIfAbsent(UUID.randomUUID(), name)
+                .switchIfEmpty(Mono.defer(() -> categoryRepository.findByName(name)))
+                .doOnNext(category -> {
+                    publish(List.of(category), loadedGeneration);
+                    log.debug("Category {} added to dictionary", name);
+                })
+                .doFinally(signal -> inFlight.remove(name))
+                .cache();
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void publish(Collection<Category> categories, long loadedGeneration) {
+        if (loadedGeneration != generation) {
+            return;
+        }
+        Map<String, Category> next = new HashMap<>(snapshot);
+        categories.forEach(category -> next.put(category.getName(), category));
+        snapshot = Map.copyOf(next);
+    }
+}
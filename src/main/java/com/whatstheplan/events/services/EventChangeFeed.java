@@ -0,0 +1,172 @@
+package com.whatstheplan.events.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.whatstheplan.events.config.ChangeFeedProperties;
+import com.whatstheplan.events.model.EventChange;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.publisher.SynchronousSink;
+import reactor.util.retry.Retry;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Holds one connection in LISTEN on the channel the V9 triggers notify, and fans changes out to the registered
+// listeners. After a reconnect, rows modified while disconnected are replayed from last_modified_date.
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "events.change-feed.enabled", havingValue = "true", matchIfMissing = true)
+public class EventChangeFeed {
+
+    static final String CHANNEL = "event_changes";
+
+    private static final String CATCH_UP = "SELECT id FROM event WHERE last_modified_date > :since";
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeedProperties properties;
+    private final List<EventChangeListener> listeners;
+    private final Sinks.Many<EventChange> changes = Sinks.many().multicast().directBestEffort();
+    private final AtomicReference<Instant> lastSeen = new AtomicReference<>(Instant.now());
+    private final AtomicBoolean connectedBefore = new AtomicBoolean();
+    private volatile boolean listening;
+    private Disposable subscription;
+
+    public EventChangeFeed(ConnectionFactory connectionFactory,
+                           DatabaseClient databaseClient,
+                           ObjectMapper objectMapper,
+                           ChangeFeedProperties properties,
+                           List<EventChangeListener> listeners) {
+        this.connectionFactory = connectionFactory;
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.listeners = listeners;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = listen()
+                .concatMap(this::dispatch)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getMinBackoff())
+                        .maxBackoff(properties.getMaxBackoff())
+                        .doBeforeRetry(signal -> log.warn("Event change feed disconnected, reconnecting: {}",
+                                signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    public boolean isListening() {
+        return listening;
+    }
+
+    public Flux<EventChange> changes() {
+        return changes.asFlux();
+    }
+
+    private Flux<EventChange> listen() {
+        return Flux.usingWhen(
+                connectionFactory.create(),
+                connection -> {
+                    PostgresqlConnection postgres = unwrap(connection);
+                    boolean reconnect = connectedBefore.getAndSet(true);
+                    Instant since = lastSeen.get().minus(properties.getCatchUpOverlap());
+
+                    Mono<Void> subscribed = postgres.createStatement("LISTEN " + CHANNEL)
+                            .execute()
+                            .flatMap(PostgresqlResult::getRowsUpdated)
+                            .then()
+                            .doOnSuccess(v -> {
+                                listening = true;
+                                lastSeen.set(Instant.now());
+                                log.info("Listening for event changes on {} as {}", CHANNEL, properties.getNodeId());
+                            });
+                    return Flux.merge(
+                                    postgres.getNotifications().handle(this::parse),
+                                    subscribed.thenMany(reconnect ? catchUp(since) : Flux.empty()))
+                            .concatWith(Mono.error(new IllegalStateException("Change feed connection closed")))
+                            .doFinally(signal -> listening = false);
+                },
+                Connection::close);
+    }
+
+    private Flux<EventChange> catchUp(Instant since) {
+        return Flux.fromIterable(listeners)
+                .concatMap(listener -> listener.onChangesMissed().onErrorResume(ex -> {
+                    log.warn("Event change listener {} failed to resync: {}",
+                            listener.getClass().getSimpleName(), ex.getMessage());
+                    return Mono.empty();
+                }))
+                .thenMany(databaseClient.sql(CATCH_UP)
+                        .bind("since", since)
+                        .map((row, rowMetadata) -> new EventChange(
+                                row.get("id", UUID.class), EventChange.Operation.UPDATE, "event", null, false))
+                        .all())
+                .doOnComplete(() -> log.info("Replayed event changes since {}", since));
+    }
+
+    private Mono<EventChange> dispatch(EventChange change) {
+        lastSeen.set(Instant.now());
+        return Flux.fromIterable(listeners)
+                .concatMap(listener -> listener.onEventChanged(change).onErrorResume(ex -> {
+                    log.warn("Event change listener {} failed for event {}: {}",
+                            listener.getClass().getSimpleName(), change.eventId(), ex.getMessage());
+                    return Mono.empty();
+                }))
+                .then(Mono.fromRunnable(() -> changes.tryEmitNext(change)))
+                .thenReturn(change);
+    }
+
+    private void parse(Notification notification, SynchronousSink<EventChange> sink) {
+        try {
+            JsonNode payload = objectMapper.readTree(notification.getParameter());
+            String node = payload.path("node").asText(null);
+            sink.next(new EventChange(
+                    UUID.fromString(payload.path("id").asText()),
+                    EventChange.Operation.valueOf(payload.path("op").asText()),
+                    payload.path("table").asText(null),
+                    node,
+                    properties.getNodeId().equals(node)));
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            log.warn("Ignoring malformed event change notification {}: {}", notification.getParameter(), ex.getMessage());
+        }
+    }
+
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (current instanceof PostgresqlConnection postgres) {
+            return postgres;
+        }
+        throw new IllegalStateException("Event change feed requires a Postgres connection");
+    }
+}
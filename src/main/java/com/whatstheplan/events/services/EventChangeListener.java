@@ -0,0 +1,14 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.model.EventChange;
+import reactor.core.publisher.Mono;
+
+public interface EventChangeListener {
+
+    Mono<Void> onEventChanged(EventChange change);
+
+    // Called after the feed reconnects; deletes made while disconnected cannot be replayed.
+    default Mono<Void> onChangesMissed() {
+        return Mono.empty();
+    }
+}
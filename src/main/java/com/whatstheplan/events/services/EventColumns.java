@@ -0,0 +1,166 @@
+package com.whatstheplan.events.services;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Fixed-width columns in direct buffers, one slot per event. Not thread-safe; EventReadModel guards access.
+final class EventColumns {
+
+    static final int NO_CAPACITY = Integer.MIN_VALUE;
+    static final int NO_LOCATION = -1;
+    static final long NO_SERIES_END = Long.MAX_VALUE;
+    static final byte LIVE = 1;
+    static final byte RECURRING = 2;
+
+    private ByteBuffer idMsb;
+    private ByteBuffer idLsb;
+    private ByteBuffer dateTime;
+    private ByteBuffer seriesEnd;
+    private ByteBuffer duration;
+    private ByteBuffer activityMask;
+    private ByteBuffer version;
+    private ByteBuffer capacity;
+    private ByteBuffer location;
+    private ByteBuffer flags;
+
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWater;
+    private int slotCapacity;
+
+    EventColumns(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    int highWater() {
+        return highWater;
+    }
+
+    int size() {
+        return slots.size();
+    }
+
+    Integer slotOf(UUID id) {
+        return slots.get(id);
+    }
+
+    int acquire(UUID id) {
+        Integer existing = slots.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWater == slotCapacity) {
+                allocate(slotCapacity * 2);
+            }
+            slot = highWater++;
+        }
+        slots.put(id, slot);
+        idMsb.putLong(slot << 3, id.getMostSignificantBits());
+        idLsb.putLong(slot << 3, id.getLeastSignificantBits());
+        flags.put(slot, (byte) 0);
+        version.putLong(slot << 3, Long.MIN_VALUE);
+        return slot;
+    }
+
+    Integer release(UUID id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return null;
+        }
+        flags.put(slot, (byte) 0);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        return slot;
+    }
+
+    void clear() {
+        slots.clear();
+        freeCount = 0;
+        highWater = 0;
+    }
+
+    void set(int slot, long dateTime, long seriesEnd, long duration, int capacity, long activityMask,
+             int location, long version, boolean recurring) {
+        this.dateTime.putLong(slot << 3, dateTime);
+        this.seriesEnd.putLong(slot << 3, seriesEnd);
+        this.duration.putLong(slot << 3, duration);
+        this.capacity.putInt(slot << 2, capacity);
+        this.activityMask.putLong(slot << 3, activityMask);
+        this.location.putInt(slot << 2, location);
+        this.version.putLong(slot << 3, version);
+        this.flags.put(slot, (byte) (LIVE | (recurring ? RECURRING : 0)));
+    }
+
+    byte flags(int slot) {
+        return flags.get(slot);
+    }
+
+    long idMsb(int slot) {
+        return idMsb.getLong(slot << 3);
+    }
+
+    long idLsb(int slot) {
+        return idLsb.getLong(slot << 3);
+    }
+
+    long dateTime(int slot) {
+        return dateTime.getLong(slot << 3);
+    }
+
+    long seriesEnd(int slot) {
+        return seriesEnd.getLong(slot << 3);
+    }
+
+    long duration(int slot) {
+        return duration.getLong(slot << 3);
+    }
+
+    int capacity(int slot) {
+        return capacity.getInt(slot << 2);
+    }
+
+    long activityMask(int slot) {
+        return activityMask.getLong(slot << 3);
+    }
+
+    int location(int slot) {
+        return location.getInt(slot << 2);
+    }
+
+    long version(int slot) {
+        return version.getLong(slot << 3);
+    }
+
+    private void allocate(int newCapacity) {
+        idMsb = grow(idMsb, newCapacity, Long.BYTES);
+        idLsb = grow(idLsb, newCapacity, Long.BYTES);
+        dateTime = grow(dateTime, newCapacity, Long.BYTES);
+        seriesEnd = grow(seriesEnd, newCapacity, Long.BYTES);
+        duration = grow(duration, newCapacity, Long.BYTES);
+        activityMask = grow(activityMask, newCapacity, Long.BYTES);
+        version = grow(version, newCapacity, Long.BYTES);
+        capacity = grow(capacity, newCapacity, Integer.BYTES);
+        location = grow(location, newCapacity, Integer.BYTES);
+        flags = grow(flags, newCapacity, Byte.BYTES);
+        slotCapacity = newCapacity;
+    }
+
+    private static ByteBuffer grow(ByteBuffer current, int newCapacity, int width) {
+        ByteBuffer next = ByteBuffer.allocateDirect(newCapacity * width).order(ByteOrder.nativeOrder());
+        if (current != null) {
+            next.put(0, current, 0, current.capacity());
+        }
+        return next;
+    }
+}
@@ -0,0 +1,148 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.LookupBatchingProperties;
+import com.whatstheplan.events.model.response.EventResponse;
+import com.whatstheplan.events.repository.EventsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Coalesces lookups by id that arrive within a short window into a single query. Callers asking for an id that is
+// already waiting or being loaded share that lookup instead of queueing a new one. Batches are only cut as fast as
+// the repository takes them, so under load lookups queue up to max-queued-lookups and fail beyond that.
+@Slf4j
+@Component
+public class EventLookupBatcher {
+
+    private static final Duration EMIT_TIMEOUT = Duration.ofMillis(100);
+
+    private final LookupBatchingProperties properties;
+    private final EventsRepository eventsRepository;
+    private final Map<UUID, PendingLookup> inFlight = new ConcurrentHashMap<>();
+    private final Sinks.Many<PendingLookup> queue;
+    private final DistributionSummary batchFill;
+    private final Timer batchWait;
+    private final Counter coalesced;
+    private final Disposable subscription;
+
+    public EventLookupBatcher(LookupBatchingProperties properties,
+                              EventsRepository eventsRepository,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.eventsRepository = eventsRepository;
+        // Multicast without auto-cancel so the pipeline can subscribe again after an error.
+        this.queue = Sinks.many().multicast().onBackpressureBuffer(properties.getMaxQueuedLookups(), false);
+        this.batchFill = DistributionSummary.builder("events.lookup.batch.fill")
+                .description("Share of the maximum batch size used by each coalesced lookup query")
+                .register(meterRegistry);
+        this.batchWait = Timer.builder("events.lookup.batch.wait")
+                .description("Time a lookup waited for its batch to be dispatched")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("events.lookup.coalesced")
+                .description("Lookups served by an identical lookup already in flight")
+                .register(meterRegistry);
+        this.subscription = queue.asFlux()
+                .bufferTimeout(properties.getMaxBatchSize(), properties.getWindow(), true)
+                .flatMap(this::dispatch, properties.getMaxConcurrentBatches())
+                .doOnError(this::failInFlight)
+                .retryWhen(Retry.indefinitely()
+                        .doBeforeRetry(signal -> log.error("Event lookup batching failed, resubscribing",
+                                signal.failure())))
+                .subscribe();
+    }
+
+    public Mono<EventResponse> findById(UUID id) {
+        if (!properties.isEnabled()) {
+            return eventsRepository.findResponseById(id);
+        }
+        return Mono.defer(() -> {
+                    PendingLookup created = new PendingLookup(id, System.nanoTime());
+                    PendingLookup pending = inFlight.putIfAbsent(id, created);
+                    if (pending == null) {
+                        try {
+                            queue.emitNext(created, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+                        } catch (Sinks.EmissionException ex) {
+                            fail(created, ex);
+                        }
+                        pending = created;
+                    } else {
+                        coalesced.increment();
+                    }
+                    return pending.result.asMono();
+                })
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscription.dispose();
+    }
+
+    private Mono<Void> dispatch(List<PendingLookup> batch) {
+        long dispatchedAt = System.nanoTime();
+        batch.forEach(lookup -> batchWait.record(Duration.ofNanos(dispatchedAt - lookup.enqueuedAt)));
+        batchFill.record((double) batch.size() / properties.getMaxBatchSize());
+
+        List<UUID> ids = batch.stream().map(lookup -> lookup.id).toList();
+        return Mono.defer(() -> load(ids))
+                .doOnNext(found -> batch.forEach(lookup -> complete(lookup, Optional.ofNullable(found.get(lookup.id)))))
+                .doOnError(ex -> {
+                    log.warn("Batched lookup of {} events failed: {}", ids.size(), ex.getMessage());
+                    batch.forEach(lookup -> fail(lookup, ex));
+                })
+                .onErrorResume(ex -> Mono.empty())
+                .then();
+    }
+
+    // A batch of one keeps the plain by-id statement and its single-row plan.
+    private Mono<Map<UUID, EventResponse>> load(List<UUID> ids) {
+        if (ids.size() == 1) {
+            return eventsRepository.findResponseById(ids.get(0))
+                    .map(response -> Map.of(response.getId(), response))
+                    .defaultIfEmpty(Map.of());
+        }
+        return eventsRepository.findResponsesByIds(ids).collectMap(EventResponse::getId, Function.identity());
+    }
+
+    private void complete(PendingLookup lookup, Optional<EventResponse> response) {
+        inFlight.remove(lookup.id, lookup);
+        lookup.result.tryEmitValue(response);
+    }
+
+    private void fail(PendingLookup lookup, Throwable ex) {
+        inFlight.remove(lookup.id, lookup);
+        lookup.result.tryEmitError(ex);
+    }
+
+    // Lookups that were buffered when the pipeline failed would otherwise never complete.
+    private void failInFlight(Throwable ex) {
+        inFlight.values().forEach(lookup -> fail(lookup, ex));
+    }
+
+    private static final class PendingLookup {
+        private final UUID id;
+        private final long enqueuedAt;
+        private final Sinks.One<Optional<EventResponse>> result = Sinks.one();
+
+        private PendingLookup(UUID id, long enqueuedAt) {
+            this.id = id;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.OccurrenceProperties;
+import com.whatstheplan.events.model.OccurrenceExpansion;
+import com.whatstheplan.events.model.PendingSeries;
+import com.whatstheplan.events.model.entities.Event;
+import com.whatstheplan.events.repository.EventOccurrenceRepository;
+import com.whatstheplan.events.utils.RecurrenceRuleCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.fortuna.ical4j.model.Recur;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventOccurrenceService {
+
+    private final EventOccurrenceRepository occurrenceRepository;
+    private final OccurrenceProperties occurrenceProperties;
+    private final RecurrenceRuleCache recurrenceRuleCache;
+
+    public Mono<Void> materialize(Event event) {
+        if (event.getDateTime() == null) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> expand(event.getDateTime(), event.getRecurrence(), event.getDateTime(), horizonTarget()))
+                .flatMap(expansion -> occurrenceRepository.replace(event.getId(), event.getDuration(), expansion)
+                        .doOnSuccess(v -> log.info("Materialized {} occurrences for event {} until {}",
+                                expansion.starts().size(), event.getId(), expansion.materializedUntil())));
+    }
+
+    public Mono<Void> extendHorizon() {
+        LocalDateTime target = horizonTarget();
+        return occurrenceRepository.findPendingSeries(target)
+                .concatMap(series -> extend(series, target))
+                .then()
+                .doOnSuccess(v -> log.info("Occurrence horizon extended until {}", target));
+    }
+
+    private Mono<Void> extend(PendingSeries series, LocalDateTime target) {
+        LocalDateTime from = Optional.ofNullable(series.occurrencesUntil()).orElse(series.dateTime());
+        return Mono.fromCallable(() -> expand(series.dateTime(), series.recurrence(), from, target))
+                .flatMap(expansion -> occurrenceRepository.extend(series.eventId(), series.duration(), expansion))
+                .onErrorResume(ex -> {
+                    log.warn("Unable to extend occurrences for event {}: {}", series.eventId(), ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private OccurrenceExpansion expand(LocalDateTime seed, String rule, LocalDateTime from, LocalDateTime target) {
+        if (rule == null) {
+            return new OccurrenceExpansion(List.of(seed), seed, true);
+        }
+
+        Recur<LocalDateTime> recur = recurrenceRuleCache.get(rule).recur();
+        List<LocalDateTime> starts = recur.getDates(seed, from, target);
+
+        int maxPerSeries = occurrenceProperties.getMaxPerSeries();
+        if (starts.size() > maxPerSeries) {
+            List<LocalDateTime> capped = starts.subList(0, maxPerSeries);
+            return new OccurrenceExpansion(capped, capped.get(maxPerSeries - 1), false);
+        }
+        return new OccurrenceExpansion(starts, target, recur.getNextDate(seed, target) == null);
+    }
+
+    private LocalDateTime horizonTarget() {
+        return LocalDateTime.now().plus(occurrenceProperties.getHorizon());
+    }
+}
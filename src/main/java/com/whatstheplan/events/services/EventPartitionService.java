@@ -0,0 +1,40 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.PartitionProperties;
+import com.whatstheplan.events.repository.EventPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventPartitionService {
+
+    private final EventPartitionRepository partitionRepository;
+    private final PartitionProperties partitionProperties;
+
+    public Mono<Void> maintain() {
+        return createFuturePartitions().then(archiveExpiredPartitions());
+    }
+
+    private Mono<Void> createFuturePartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        return Flux.range(0, partitionProperties.getPremadeMonths() + 1)
+                .concatMap(i -> partitionRepository.createPartition(month.plusMonths(i)))
+                .doOnNext(partition -> log.info("Created event partition {}", partition))
+                .then();
+    }
+
+    private Mono<Void> archiveExpiredPartitions() {
+        LocalDateTime before = LocalDateTime.now().minus(partitionProperties.getRetention());
+        return partitionRepository.archivePartitions(before)
+                .doOnNext(partition -> log.info("Archived event partition {}", partition))
+                .then();
+    }
+}
@@ -0,0 +1,440 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.ReadModelProperties;
+import com.whatstheplan.events.model.ActivityType;
+import com.whatstheplan.events.model.CompiledRecurrence;
+import com.whatstheplan.events.model.EventChange;
+import com.whatstheplan.events.model.SearchCursor;
+import com.whatstheplan.events.model.SearchSort;
+import com.whatstheplan.events.model.entities.Event;
+import com.whatstheplan.events.model.request.EventFilterRequest;
+import com.whatstheplan.events.repository.EventsRepository;
+import com.whatstheplan.events.utils.RecurrenceRuleCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.whatstheplan.events.services.EventColumns.LIVE;
+import static com.whatstheplan.events.services.EventColumns.NO_CAPACITY;
+import static com.whatstheplan.events.services.EventColumns.NO_LOCATION;
+import static com.whatstheplan.events.services.EventColumns.NO_SERIES_END;
+import static com.whatstheplan.events.services.EventColumns.RECURRING;
+
+// In-process copy of the filterable columns of events with upcoming occurrences. Pages are selected by scanning the
+// columns and only the ids of the final page go back to Postgres for full rows.
+@Slf4j
+@Component
+public class EventReadModel implements EventChangeListener {
+
+    private static final long NO_DURATION = Long.MIN_VALUE;
+
+    private final ReadModelProperties properties;
+    private final RecurrenceRuleCache recurrenceRuleCache;
+    private final EventsRepository eventsRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final EventColumns columns;
+    // Locations are interned to ints and reference counted by the live slots using them, so evicted and removed
+    // events release their location and the dictionary stays as small as the set of locations in the model.
+    private final Map<String, Integer> locationIds = new HashMap<>();
+    private String[] locationNames = new String[16];
+    private int[] locationRefs = new int[16];
+    private int[] freeLocations = new int[16];
+    private int freeLocationCount;
+    private int locationHighWater;
+    private CompiledRecurrence[] recurrences;
+    private volatile LocalDateTime loadedFrom;
+
+    public EventReadModel(ReadModelProperties properties,
+                          RecurrenceRuleCache recurrenceRuleCache,
+                          EventsRepository eventsRepository,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.recurrenceRuleCache = recurrenceRuleCache;
+        this.eventsRepository = eventsRepository;
+        this.columns = new EventColumns(properties.getInitialCapacity());
+        this.recurrences = new CompiledRecurrence[Math.max(16, properties.getInitialCapacity())];
+        Gauge.builder("events.read.model.events", this, EventReadModel::size)
+                .description("Events held by the in-memory read model")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime from = LocalDateTime.now();
+        load(eventsRepository.findUpcoming(from), from)
+                .subscribe(null, ex -> log.error("Unable to bootstrap event read model", ex));
+    }
+
+    Mono<Void> load(Flux<Event> events, LocalDateTime from) {
+        return events.doOnNext(this::upsert)
+                .then()
+                .doOnSuccess(v -> {
+                    loadedFrom = from;
+                    log.info("Event read model loaded {} events with occurrences from {}", size(), from);
+                });
+    }
+
+    @Override
+    public Mono<Void> onEventChanged(EventChange change) {
+        if (!properties.isEnabled() || change.local()) {
+            return Mono.empty();
+        }
+        return eventsRepository.findById(change.eventId())
+                .doOnNext(this::upsert)
+                .switchIfEmpty(Mono.fromRunnable(() -> remove(change.eventId())))
+                .then();
+    }
+
+    // Deletes missed while the feed was down leave no trace to replay, so the model is rebuilt.
+    @Override
+    public Mono<Void> onChangesMissed() {
+        if (!properties.isEnabled()) {
+            return Mono.empty();
+        }
+        LocalDateTime from = LocalDateTime.now();
+        return Mono.fromRunnable(this::clear)
+                .then(load(eventsRepository.findUpcoming(from), from));
+    }
+
+    public boolean canAnswer(EventFilterRequest filter) {
+        LocalDateTime from = loadedFrom;
+        return properties.isEnabled()
+                && from != null
+                && (filter.getQ() == null || filter.getQ().isBlank())
+                && filter.getLat() == null && filter.getLon() == null && filter.getRadiusKm() == null
+                && (filter.getSort() == null || filter.getSort() == SearchSort.DATE)
+                && filter.getDateTimeFrom() != null && filter.getDateTimeTo() != null
+                && !filter.getDateTimeFrom().isBefore(from)
+                && filter.getLimit() != null;
+    }
+
+    public void upsert(Event event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (event.getDateTime() == null) {
+            remove(event.getId());
+            return;
+        }
+        boolean recurring = event.getRecurrence() != null;
+        CompiledRecurrence recurrence = recurring ? compile(event) : null;
+        long version = event.getLastModifiedDate() != null ? event.getLastModifiedDate().toEpochMilli() : 0;
+
+        lock.writeLock().lock();
+        try {
+            int slot = columns.acquire(event.getId());
+            if (columns.version(slot) > version) {
+                return;
+            }
+            int location = event.getLocation() != null ? acquireLocation(event.getLocation()) : NO_LOCATION;
+            releaseLocation(slot);
+            columns.set(slot,
+                    micros(event.getDateTime()),
+                    event.getSeriesEnd() != null ? micros(event.getSeriesEnd()) : NO_SERIES_END,
+                    event.getDuration() != null ? event.getDuration().toSeconds() : NO_DURATION,
+                    event.getCapacity() != null ? event.getCapacity() : NO_CAPACITY,
+                    event.getActivityMask() != null ? event.getActivityMask() : 0,
+                    location,
+                    version,
+                    recurring);
+            if (slot >= recurrences.length) {
+                recurrences = Arrays.copyOf(recurrences, Math.max(slot + 1, recurrences.length * 2));
+            }
+            recurrences[slot] = recurrence;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID eventId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slot = columns.slotOf(eventId);
+            if (slot != null) {
+                releaseLocation(slot);
+                columns.release(eventId);
+                recurrences[slot] = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            loadedFrom = null;
+            columns.clear();
+            locationIds.clear();
+            Arrays.fill(locationNames, null);
+            freeLocationCount = 0;
+            locationHighWater = 0;
+            Arrays.fill(recurrences, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drops events that cannot occur at or after the cutoff and stops answering windows that start before it,
+    // so past one-off events and ended series do not accumulate between rebuilds.
+    public int evictBefore(LocalDateTime cutoff) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        long limit = micros(cutoff);
+        lock.writeLock().lock();
+        try {
+            List<UUID> expired = new ArrayList<>();
+            int highWater = columns.highWater();
+            for (int slot = 0; slot < highWater; slot++) {
+                byte flags = columns.flags(slot);
+                if ((flags & LIVE) == 0) {
+                    continue;
+                }
+                boolean recurring = (flags & RECURRING) != 0;
+                if (recurring ? columns.seriesEnd(slot) < limit : columns.dateTime(slot) < limit) {
+                    releaseLocation(slot);
+                    expired.add(new UUID(columns.idMsb(slot), columns.idLsb(slot)));
+                }
+            }
+            for (UUID id : expired) {
+                recurrences[columns.release(id)] = null;
+            }
+            LocalDateTime from = loadedFrom;
+            if (from != null && from.isBefore(cutoff)) {
+                loadedFrom = cutoff;
+            }
+            return expired.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<UUID> search(EventFilterRequest filter) {
+        return page(filter).ids();
+    }
+
+    // Ids of the page in (date_time, id) order, the same order the SQL search uses. The cursor comes from the last
+    // scanned slot, so rows deleted before the page is fetched do not end the pagination early.
+    public Page page(EventFilterRequest filter) {
+        long from = micros(filter.getDateTimeFrom());
+        long to = micros(filter.getDateTimeTo());
+        long durationFrom = filter.getDurationFrom() != null ? filter.getDurationFrom().toSeconds() : Long.MIN_VALUE;
+        long durationTo = filter.getDurationTo() != null ? filter.getDurationTo().toSeconds() : Long.MAX_VALUE;
+        boolean durationFiltered = filter.getDurationFrom() != null || filter.getDurationTo() != null;
+        long capacityMin = filter.getCapacityMin() != null ? filter.getCapacityMin() : Long.MIN_VALUE;
+        long capacityMax = filter.getCapacityMax() != null ? filter.getCapacityMax() : Long.MAX_VALUE;
+        boolean capacityFiltered = filter.getCapacityMin() != null || filter.getCapacityMax() != null;
+        long activityMask = ActivityType.mask(filter.getActivityTypes());
+        SearchCursor cursor = SearchCursor.decode(filter.getCursor());
+        long cursorTime = cursor != null ? micros(cursor.dateTime()) : Long.MIN_VALUE;
+        long cursorMsb = cursor != null ? cursor.id().getMostSignificantBits() : 0;
+        long cursorLsb = cursor != null ? cursor.id().getLeastSignificantBits() : 0;
+        int limit = filter.getLimit();
+
+        lock.readLock().lock();
+        try {
+            int location = NO_LOCATION;
+            if (filter.getLocation() != null && !filter.getLocation().isEmpty()) {
+                Integer id = locationIds.get(filter.getLocation());
+                if (id == null) {
+                    return new Page(List.of(), null);
+                }
+                location = id;
+            }
+
+            int[] page = new int[limit];
+            int size = 0;
+            int highWater = columns.highWater();
+            for (int slot = 0; slot < highWater; slot++) {
+                byte flags = columns.flags(slot);
+                if ((flags & LIVE) == 0) {
+                    continue;
+                }
+                long start = columns.dateTime(slot);
+                boolean recurring = (flags & RECURRING) != 0;
+                if (start > to || (recurring ? columns.seriesEnd(slot) < from : start < from)) {
+                    continue;
+                }
+                if (location != NO_LOCATION && columns.location(slot) != location) {
+                    continue;
+                }
+                if (activityMask != 0 && (columns.activityMask(slot) & activityMask) == 0) {
+                    continue;
+                }
+                if (durationFiltered) {
+                    long duration = columns.duration(slot);
+                    if (duration == NO_DURATION || duration < durationFrom || duration > durationTo) {
+                        continue;
+                    }
+                }
+                if (capacityFiltered) {
+                    int capacity = columns.capacity(slot);
+                    if (capacity == NO_CAPACITY || capacity < capacityMin || capacity > capacityMax) {
+                        continue;
+                    }
+                }
+                long msb = columns.idMsb(slot);
+                long lsb = columns.idLsb(slot);
+                if (cursor != null && compare(start, msb, lsb, cursorTime, cursorMsb, cursorLsb) <= 0) {
+                    continue;
+                }
+                if (size == limit && compare(start, msb, lsb, page[limit - 1]) >= 0) {
+                    continue;
+                }
+                if (recurring && !occurs(slot, start, filter)) {
+                    continue;
+                }
+
+                int position = size < limit ? size++ : limit - 1;
+                while (position > 0 && compare(start, msb, lsb, page[position - 1]) < 0) {
+                    page[position] = page[position - 1];
+                    position--;
+                }
+                page[position] = slot;
+            }
+
+            List<UUID> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ids.add(new UUID(columns.idMsb(page[i]), columns.idLsb(page[i])));
+            }
+            SearchCursor next = size == limit
+                    ? new SearchCursor(dateTime(columns.dateTime(page[size - 1])), ids.get(size - 1))
+                    : null;
+            return new Page(ids, next);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int locations() {
+        lock.readLock().lock();
+        try {
+            return locationIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int acquireLocation(String name) {
+        Integer existing = locationIds.get(name);
+        int id;
+        if (existing != null) {
+            id = existing;
+        } else {
+            if (freeLocationCount > 0) {
+                id = freeLocations[--freeLocationCount];
+            } else {
+                if (locationHighWater == locationNames.length) {
+                    locationNames = Arrays.copyOf(locationNames, locationHighWater * 2);
+                    locationRefs = Arrays.copyOf(locationRefs, locationHighWater * 2);
+                }
+                id = locationHighWater++;
+            }
+            locationIds.put(name, id);
+            locationNames[id] = name;
+            locationRefs[id] = 0;
+        }
+        locationRefs[id]++;
+        return id;
+    }
+
+    // Releases the location held by a live slot, if any; slots just acquired are not live yet and hold none.
+    private void releaseLocation(int slot) {
+        if ((columns.flags(slot) & LIVE) == 0) {
+            return;
+        }
+        int id = columns.location(slot);
+        if (id == NO_LOCATION || --locationRefs[id] > 0) {
+            return;
+        }
+        locationIds.remove(locationNames[id]);
+        locationNames[id] = null;
+        if (freeLocationCount == freeLocations.length) {
+            freeLocations = Arrays.copyOf(freeLocations, freeLocationCount * 2);
+        }
+        freeLocations[freeLocationCount++] = id;
+    }
+
+    private boolean occurs(int slot, long start, EventFilterRequest filter) {
+        CompiledRecurrence recurrence = recurrences[slot];
+        if (recurrence == null) {
+            return false;
+        }
+        try {
+            return recurrence.occursBetween(dateTime(start), filter.getDateTimeFrom(), filter.getDateTimeTo());
+        } catch (RuntimeException ex) {
+            log.warn("Unable to evaluate recurrence of event {}: {}",
+                    new UUID(columns.idMsb(slot), columns.idLsb(slot)), ex.getMessage());
+            return false;
+        }
+    }
+
+    private CompiledRecurrence compile(Event event) {
+        try {
+            return recurrenceRuleCache.get(event.getRecurrence());
+        } catch (RuntimeException ex) {
+            log.warn("Unable to compile recurrence of event {}: {}", event.getId(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private int compare(long start, long msb, long lsb, int slot) {
+        return compare(start, msb, lsb, columns.dateTime(slot), columns.idMsb(slot), columns.idLsb(slot));
+    }
+
+    // Postgres compares uuids byte by byte, which is unsigned order on the two halves.
+    private static int compare(long start, long msb, long lsb, long otherStart, long otherMsb, long otherLsb) {
+        int result = Long.compare(start, otherStart);
+        if (result == 0) {
+            result = Long.compareUnsigned(msb, otherMsb);
+        }
+        if (result == 0) {
+            result = Long.compareUnsigned(lsb, otherLsb);
+        }
+        return result;
+    }
+
+    private static long micros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime dateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    public record Page(List<UUID> ids, SearchCursor next) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.whatstheplan.events.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.whatstheplan.events.config.EventCacheProperties;
+import com.whatstheplan.events.model.EventChange;
+import com.whatstheplan.events.model.response.EventResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+// Read-through cache of single event responses. Concurrent misses on the same id share one load, and a write
+// records its lastModifiedDate so a load that read the row before the write is served but dropped from the cache
+// as soon as it completes. Callers get their own copy of the cached response.
+@Slf4j
+@Component
+public class EventResponseCache implements EventChangeListener {
+
+    private final boolean enabled;
+    private final AsyncCache<UUID, EventResponse> cache;
+    private final Cache<UUID, Instant> writtenVersions;
+
+    public EventResponseCache(EventCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .buildAsync();
+        this.writtenVersions = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "event.responses");
+    }
+
+    public Mono<EventResponse> get(UUID id, Function<UUID, Mono<EventResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        CompletableFuture<EventResponse> loading = cache.get(id, (key, executor) -> loader.apply(key).toFuture());
+        // Only this load is removed; a newer one started after an invalidation stays cached.
+        loading.thenAccept(response -> {
+            if (response != null && isStale(response)) {
+                cache.asMap().remove(id, loading);
+            }
+        });
+        return Mono.fromFuture(loading, true).map(EventResponse::copy);
+    }
+
+    public void invalidate(UUID id, Instant version) {
+        if (version != null) {
+            writtenVersions.asMap().merge(id, version, (previous, next) -> next.isAfter(previous) ? next : previous);
+        }
+        invalidate(id);
+    }
+
+    public void invalidate(UUID id) {
+        cache.synchronous().invalidate(id);
+        log.debug("Invalidated cached response for event {}", id);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+        writtenVersions.invalidateAll();
+    }
+
+    // Local writes already invalidated with their version; another node's write only carries the id.
+    @Override
+    public Mono<Void> onEventChanged(EventChange change) {
+        return change.local() ? Mono.empty() : Mono.fromRunnable(() -> invalidate(change.eventId()));
+    }
+
+    @Override
+    public Mono<Void> onChangesMissed() {
+        return Mono.fromRunnable(this::invalidateAll);
+    }
+
+    private boolean isStale(EventResponse response) {
+        Instant written = writtenVersions.getIfPresent(response.getId());
+        return written != null
+                && response.getLastModifiedDate() != null
+                && response.getLastModifiedDate().isBefore(written);
+    }
+}
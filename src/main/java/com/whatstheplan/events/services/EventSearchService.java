@@ -1,49 +1,273 @@
 package com.whatstheplan.events.services;
 
+import com.whatstheplan.events.config.SearchProperties;
+import com.whatstheplan.events.exceptions.ValidationException;
+import com.whatstheplan.events.model.ActivityType;
+import com.whatstheplan.events.model.FacetCandidate;
+import com.whatstheplan.events.model.FacetCount;
+import com.whatstheplan.events.model.ResourceVersion;
+import com.whatstheplan.events.model.SearchCursor;
+import com.whatstheplan.events.model.SearchSort;
 import com.whatstheplan.events.model.request.EventFilterRequest;
+import com.whatstheplan.events.model.response.EventPageResponse;
 import com.whatstheplan.events.model.response.EventResponse;
+import com.whatstheplan.events.model.response.FacetsResponse;
 import com.whatstheplan.events.repository.EventsRepository;
+import com.whatstheplan.events.utils.FacetBuckets;
+import com.whatstheplan.events.utils.RecurrenceRuleCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.fortuna.ical4j.model.Recur;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
-import java.time.LocalDateTime;
-
-import static com.whatstheplan.events.utils.RecurrenceUtils.generateRRule;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EventSearchService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final EventsRepository eventsRepository;
+    private final RecurrenceRuleCache recurrenceRuleCache;
+    private final SearchResultCache searchResultCache;
+    private final EventReadModel eventReadModel;
+    private final SearchProperties searchProperties;
+    private final MeterRegistry meterRegistry;
 
     public Flux<EventResponse> searchEvents(EventFilterRequest filter) {
-        return eventsRepository.searchEvents(filter)
-                .filterWhen(event -> checkEventOccurrence(event, filter))
+        return filterOccurrences(eventsRepository.searchEvents(filter), filter);
+    }
+
+    public Flux<EventResponse> streamEvents(EventFilterRequest filter) {
+        return Flux.defer(() -> {
+            validate(filter);
+            return searchEvents(filter);
+        });
+    }
+
+    public Mono<EventPageResponse> searchPage(EventFilterRequest filter) {
+        return Mono.fromCallable(() -> toPageFilter(filter))
+                .flatMap(pageFilter -> searchResultCache.get(pageFilter, this::fetchPage));
+    }
+
+    // Validators for the page searchPage would return, computed over its keyset window without fetching the rows.
+    public Mono<ResourceVersion> searchVersion(EventFilterRequest filter) {
+        return Mono.fromCallable(() -> searchResultCache.normalize(toPageFilter(filter)))
+                .flatMap(pageFilter -> eventsRepository.findSearchValidator(pageFilter)
+                        .map(validator -> ResourceVersion.of(pageFilter, validator)));
+    }
+
+    public Mono<FacetsResponse> facets(EventFilterRequest filter) {
+        return Mono.defer(() -> {
+            validate(filter);
+            return Mono.zip(
+                    eventsRepository.countFacets(filter).collectList(),
+                    eventsRepository.findFacetCandidates(filter)
+                            .filter(candidate -> candidateOccurs(candidate, filter))
+                            .collectList());
+        }).map(tuple -> toFacetsResponse(tuple.getT1(), tuple.getT2()));
+    }
+
+    private Mono<EventPageResponse> fetchPage(EventFilterRequest pageFilter) {
+        if (eventReadModel.canAnswer(pageFilter)) {
+            return fetchPageFromReadModel(pageFilter);
+        }
+        return eventsRepository.searchEvents(pageFilter)
+                .collectList()
+                .flatMap(rows -> filterOccurrences(Flux.fromIterable(rows), pageFilter)
+                        .collectList()
+                        .map(events -> EventPageResponse.builder()
+                                .events(events)
+                                .next(pageFilter.getSort() == null || pageFilter.getSort() == SearchSort.DATE
+                                        ? nextCursor(rows, pageFilter.getLimit())
+                                        : null)
+                                .build()));
+    }
+
+    private Mono<EventPageResponse> fetchPageFromReadModel(EventFilterRequest pageFilter) {
+        return Mono.fromCallable(() -> eventReadModel.page(pageFilter))
+                .flatMap(page -> eventsRepository.findSearchRowsByIds(page.ids(), pageFilter.getView())
+                        .collectList()
+                        .map(events -> EventPageResponse.builder()
+                                .events(events)
+                                .next(page.next() != null ? page.next().encode() : null)
+                                .build()));
+    }
+
+    // A batch is closed when full or when the window elapses, so streamed rows are never held back waiting for a
+    // slow cursor to fill it; fair backpressure keeps timed batches from overflowing the ordered merge below.
+    private Flux<EventResponse> filterOccurrences(Flux<EventResponse> events, EventFilterRequest filter) {
+        return events
+                .bufferTimeout(searchProperties.getOccurrenceBatchSize(), searchProperties.getOccurrenceBatchWindow(), true)
+                .flatMapSequential(batch -> filterBatch(batch, filter), searchProperties.getOccurrenceParallelism())
+                .flatMapIterable(Function.identity())
                 .onErrorResume(e -> {
                     log.error("Error processing event", e);
                     return Flux.empty();
                 });
     }
 
-    private Mono<Boolean> checkEventOccurrence(EventResponse event, EventFilterRequest eventFilterRequest) {
+    private Mono<List<EventResponse>> filterBatch(List<EventResponse> batch, EventFilterRequest filter) {
+        if (batch.stream().allMatch(event -> event.getRecurrence() == null || event.isWindowVerified())) {
+            return Mono.just(batch);
+        }
         return Mono.fromCallable(() -> {
-                    if (event.getRecurrence() == null) return true;
+                    long start = System.nanoTime();
+                    List<EventResponse> matching = batch.stream()
+                            .filter(event -> checkEventOccurrence(event, filter))
+                            .toList();
+                    long elapsed = System.nanoTime() - start;
+                    meterRegistry.timer("events.search.occurrence.batch").record(elapsed, TimeUnit.NANOSECONDS);
+                    log.debug("Filtered occurrence batch of {} events down to {} in {} us",
+                            batch.size(), matching.size(), TimeUnit.NANOSECONDS.toMicros(elapsed));
+                    return matching;
+                })
+                .subscribeOn(Schedulers.parallel());
+    }
 
-                    Recur<LocalDateTime> recurrence = new Recur<>(generateRRule(event.getRecurrence()));
+    private void validate(EventFilterRequest filter) {
+        if (filter.getLimit() != null && filter.getLimit() < 1) {
+            throw new ValidationException("Limit must be at least 1.");
+        }
+        SearchCursor.decode(filter.getCursor());
 
-                    return !recurrence.getDates(
-                                    event.getDateTime(),
-                                    eventFilterRequest.getDateTimeFrom(),
-                                    eventFilterRequest.getDateTimeTo())
-                            .isEmpty();
-                })
-                .subscribeOn(Schedulers.boundedElastic())
-                .onErrorReturn(false);
+        if (filter.getActivityTypes() != null) {
+            filter.getActivityTypes().stream()
+                    .filter(activityType -> !ActivityType.isValid(activityType))
+                    .findFirst()
+                    .ifPresent(activityType -> {
+                        throw new ValidationException("Invalid activity type: " + activityType);
+                    });
+        }
+
+        boolean geo = filter.getLat() != null || filter.getLon() != null || filter.getRadiusKm() != null;
+        if (geo) {
+            if (filter.getLat() == null || filter.getLon() == null || filter.getRadiusKm() == null) {
+                throw new ValidationException("Radius search requires lat, lon and radiusKm.");
+            }
+            if (Math.abs(filter.getLat()) > 90 || Math.abs(filter.getLon()) > 180) {
+                throw new ValidationException("Coordinates are out of range.");
+            }
+            if (filter.getRadiusKm() <= 0) {
+                throw new ValidationException("Radius must be greater than 0.");
+            }
+        }
+        if (filter.getSort() == SearchSort.DISTANCE && !geo) {
+            throw new ValidationException("Sorting by distance requires lat, lon and radiusKm.");
+        }
+        if (filter.getSort() == SearchSort.RELEVANCE && (filter.getQ() == null || filter.getQ().isBlank())) {
+            throw new ValidationException("Sorting by relevance requires q.");
+        }
+        if (filter.getSort() != null && filter.getSort() != SearchSort.DATE && filter.getCursor() != null) {
+            throw new ValidationException("Cursor pagination is only supported when sorting by date.");
+        }
+    }
+
+    private EventFilterRequest toPageFilter(EventFilterRequest filter) {
+        validate(filter);
+        Integer limit = filter.getLimit();
+        return filter.toBuilder()
+                .limit(limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE))
+                .build();
+    }
+
+    private String nextCursor(List<EventResponse> rows, int limit) {
+        if (rows.size() < limit) {
+            return null;
+        }
+        return SearchCursor.of(rows.get(rows.size() - 1)).encode();
+    }
+
+    // Counts come back from SQL for everything but recurring series without a materialized occurrence in the
+    // window; those are checked against their rule here and folded into the same buckets.
+    private FacetsResponse toFacetsResponse(List<FacetCount> counts, List<FacetCandidate> candidates) {
+        long[] activityTypes = new long[ActivityType.values().length];
+        long[] capacity = new long[FacetBuckets.CAPACITY_LABELS.size()];
+        long[] duration = new long[FacetBuckets.DURATION_LABELS.size()];
+        long total = 0;
+
+        for (FacetCount count : counts) {
+            switch (count.facet()) {
+                case "total" -> total += count.count();
+                case "activityType" -> addTo(activityTypes, count.bucket(), count.count());
+                case "capacity" -> addTo(capacity, count.bucket(), count.count());
+                case "duration" -> addTo(duration, count.bucket(), count.count());
+                default -> log.warn("Ignoring unknown facet {}", count.facet());
+            }
+        }
+        for (FacetCandidate candidate : candidates) {
+            total++;
+            for (ActivityType activityType : ActivityType.values()) {
+                if ((candidate.activityMask() & activityType.bit()) != 0) {
+                    activityTypes[activityType.ordinal()]++;
+                }
+            }
+            addTo(capacity, FacetBuckets.capacityBucket(candidate.capacity()), 1);
+            addTo(duration, FacetBuckets.durationBucket(candidate.duration()), 1);
+        }
+
+        Map<String, Long> activityTypeCounts = new LinkedHashMap<>();
+        for (ActivityType activityType : ActivityType.values()) {
+            if (activityTypes[activityType.ordinal()] > 0) {
+                activityTypeCounts.put(activityType.getName(), activityTypes[activityType.ordinal()]);
+            }
+        }
+        return FacetsResponse.builder()
+                .total(total)
+                .activityTypes(activityTypeCounts)
+                .capacity(labelled(FacetBuckets.CAPACITY_LABELS, capacity))
+                .duration(labelled(FacetBuckets.DURATION_LABELS, duration))
+                .build();
+    }
+
+    private static void addTo(long[] buckets, Integer bucket, long count) {
+        if (bucket != null && bucket >= 0 && bucket < buckets.length) {
+            buckets[bucket] += count;
+        }
+    }
+
+    private static Map<String, Long> labelled(List<String> labels, long[] buckets) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < labels.size(); i++) {
+            counts.put(labels.get(i), buckets[i]);
+        }
+        return counts;
+    }
+
+    private boolean candidateOccurs(FacetCandidate candidate, EventFilterRequest filter) {
+        try {
+            return recurrenceRuleCache
+                    .get(candidate.recurrence())
+                    .occursBetween(candidate.dateTime(), filter.getDateTimeFrom(), filter.getDateTimeTo());
+        } catch (RuntimeException ex) {
+            log.warn("Unable to evaluate recurrence of event {}: {}", candidate.id(), ex.getMessage());
+            return false;
+        }
+    }
+
+    private boolean checkEventOccurrence(EventResponse event, EventFilterRequest eventFilterRequest) {
+        if (event.getRecurrence() == null || event.isWindowVerified()) return true;
+
+        try {
+            return recurrenceRuleCache
+                    .get(event.getRecurrenceRule(), event.getRecurrence())
+                    .occursBetween(
+                            event.getDateTime(),
+                            eventFilterRequest.getDateTimeFrom(),
+                            eventFilterRequest.getDateTimeTo());
+        } catch (RuntimeException ex) {
+            log.warn("Unable to evaluate recurrence of event {}: {}", event.getId(), ex.getMessage());
+            return false;
+        }
     }
 }
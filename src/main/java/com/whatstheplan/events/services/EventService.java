@@ -1,50 +1,91 @@
 package com.whatstheplan.events.services;
 
+import com.whatstheplan.events.exceptions.EventArchivedException;
 import com.whatstheplan.events.exceptions.EventNotFoundException;
 import com.whatstheplan.events.exceptions.UploadImageToS3Exception;
+import com.whatstheplan.events.exceptions.ValidationException;
 import com.whatstheplan.events.model.entities.Category;
 import com.whatstheplan.events.model.entities.Event;
 import com.whatstheplan.events.model.entities.EventCategories;
 import com.whatstheplan.events.model.request.EventRequest;
+import com.whatstheplan.events.model.response.EventBatchResponse;
 import com.whatstheplan.events.model.response.EventResponse;
-import com.whatstheplan.events.repository.CategoryRepository;
 import com.whatstheplan.events.repository.EventCategoriesRepository;
 import com.whatstheplan.events.repository.EventsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EventService {
 
+    static final int MAX_BATCH_SIZE = 100;
+
     private final S3Service s3Service;
     private final EventsRepository eventsRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryDictionary categoryDictionary;
     private final EventCategoriesRepository eventCategoryRepository;
+    private final EventOccurrenceService eventOccurrenceService;
+    private final SearchResultCache searchResultCache;
+    private final EventReadModel eventReadModel;
+    private final EventLookupBatcher eventLookupBatcher;
+    private final EventResponseCache eventResponseCache;
+    private final TransactionalOperator transactionalOperator;
 
     public Mono<EventResponse> findById(UUID eventId) {
-        return eventsRepository.findById(eventId)
-                .doOnSuccess(event -> log.info("Found event with id {} and data {}", eventId, event))
-                .switchIfEmpty(Mono.error(new EventNotFoundException("Event not found with id: " + eventId)))
-                .flatMap(event -> eventCategoryRepository.findAllByEventId(eventId)
-                        .doOnError(ex -> {
-                            throw new RuntimeException("Unable to retrieve event categories for event id: " + eventId);
-                        })
-                        .flatMap(eventCategory -> categoryRepository.findById(eventCategory.getCategoryId()))
-                        .collectList()
-                        .map(categories -> EventResponse.fromEntity(event, categories)))
+        return eventResponseCache.get(eventId, eventLookupBatcher::findById)
+                .switchIfEmpty(Mono.defer(() -> notFound(eventId)))
                 .doOnSuccess(response -> log.info("Returning event response: {}", response));
     }
 
+    // Events whose partition was archived after the retention period are reported as archived rather than missing.
+    private <T> Mono<T> notFound(UUID eventId) {
+        return eventsRepository.isArchived(eventId)
+                .defaultIfEmpty(false)
+                .flatMap(archived -> Mono.error(archived
+                        ? new EventArchivedException("Event archived with id: " + eventId)
+                        : new EventNotFoundException("Event not found with id: " + eventId)));
+    }
+
+    public Mono<EventBatchResponse> findByIds(List<UUID> eventIds) {
+        if (eventIds == null || eventIds.isEmpty()) {
+            return Mono.error(new ValidationException("At least one event id is required."));
+        }
+        if (eventIds.stream().anyMatch(Objects::isNull)) {
+            return Mono.error(new ValidationException("Event ids must not be null."));
+        }
+        List<UUID> ids = List.copyOf(new LinkedHashSet<>(eventIds));
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return Mono.error(new ValidationException("At most " + MAX_BATCH_SIZE + " event ids can be requested at once."));
+        }
+        return eventsRepository.findResponsesByIds(ids)
+                .collectList()
+                .map(events -> {
+                    Set<UUID> found = events.stream().map(EventResponse::getId).collect(Collectors.toSet());
+                    return EventBatchResponse.builder()
+                            .events(events)
+                            .missing(ids.stream().filter(id -> !found.contains(id)).toList())
+                            .build();
+                })
+                .doOnSuccess(response -> log.info("Returning {} of {} requested events",
+                        response.getEvents().size(), ids.size()));
+    }
+
     public Mono<EventResponse> saveEvent(EventRequest request, FilePart image) {
         AtomicReference<String> imagePath = new AtomicReference<>();
         return s3Service.uploadFile(image)
@@ -54,30 +95,18 @@ public class EventService {
                 .doOnNext(imagePath::set)
                 .flatMap(request::toNewEntity)
                 .doOnSuccess(entity -> log.info("Saving event with data: {}", entity))
-                .flatMap(eventsRepository::insert)
-                .doOnSuccess(savedEvent -> log.info("Event inserted into repository with ID: {}", savedEvent.getId()))
-                .flatMap(savedEvent -> Flux.fromIterable(request.getActivityTypes())
-                        .flatMap(activityType ->
-                                categoryRepository.findByName(activityType)
-                                        .switchIfEmpty(
-                                                categoryRepository.save(Category.from(activityType))
-                                        )
-                        )
-                        .collectList()
-                        .flatMap(savedCategories ->
-                                Flux.fromIterable(savedCategories)
-                                        .flatMap(category ->
-                                                eventCategoryRepository.save(
-                                                        EventCategories.from(savedEvent.getId(), category.getId())
-                                                )
-                                        )
-                                        .collectList()
-                                        .thenReturn(savedCategories)
-                        )
-                        .doOnSuccess(savedCategories -> log.info("Event categories saved successfully: {}", savedCategories))
-                        .map(savedCategories ->
-                                EventResponse.fromEntity(savedEvent, savedCategories)
-                        ))
+                .flatMap(entity -> resolveCategories(request.getActivityTypes())
+                        .flatMap(categories -> transactionalOperator.transactional(
+                                        eventsRepository.insert(entity)
+                                                .doOnSuccess(savedEvent -> log.info("Event inserted into repository with ID: {}", savedEvent.getId()))
+                                                .flatMap(savedEvent -> eventOccurrenceService.materialize(savedEvent).thenReturn(savedEvent))
+                                                .flatMap(savedEvent -> linkCategories(savedEvent, categories).thenReturn(savedEvent)))
+                                .doOnSuccess(savedEvent -> {
+                                    log.info("Event categories saved successfully: {}", categories);
+                                    eventReadModel.upsert(savedEvent);
+                                    searchResultCache.invalidate(savedEvent, request.getActivityTypes());
+                                })
+                                .map(savedEvent -> EventResponse.fromEntity(savedEvent, categories))))
                 .doOnError(ex -> log.error("Error saving event", ex))
                 .onErrorResume(ex ->
                         s3Service.deleteFile(imagePath.get())
@@ -87,45 +116,47 @@ public class EventService {
 
     public Mono<EventResponse> updateEvent(UUID eventId, EventRequest request, Optional<FilePart> image) {
         return eventsRepository.findById(eventId)
-                .switchIfEmpty(Mono.error(new EventNotFoundException("Event not found with id: " + eventId)))
+                .switchIfEmpty(Mono.defer(() -> notFound(eventId)))
                 .flatMap(event -> image
                         .map(filePart -> updateEventAndImage(event, request, filePart))
                         .orElseGet(() -> updateJustEvent(event, request, event.getImageKey())));
     }
 
     private Mono<EventResponse> updateJustEvent(Event event, EventRequest request, String imageKey) {
-        return request.toUpdateEntity(event.getId(), imageKey)
-                .doOnSuccess(entity -> log.info("Updating event with data: {}", entity))
-                .flatMap(eventsRepository::update)
-                .doOnSuccess(updatedEvent -> log.info("Event updated in repository with ID: {}", updatedEvent.getId()))
-                .flatMap(updatedEvent ->
-                        eventCategoryRepository.deleteAllByEventId(event.getId())
-                                .then(
-                                        Flux.fromIterable(request.getActivityTypes())
-                                                .flatMap(activityType ->
-                                                        categoryRepository.findByName(activityType)
-                                                                .switchIfEmpty(
-                                                                        categoryRepository.save(Category.from(activityType))
-                                                                )
-                                                )
-                                                .collectList()
-                                                .flatMap(categories ->
-                                                        Flux.fromIterable(categories)
-                                                                .flatMap(category ->
-                                                                        eventCategoryRepository.save(
-                                                                                EventCategories.from(updatedEvent.getId(), category.getId())
-                                                                        )
-                                                                )
-                                                                .collectList()
-                                                                .thenReturn(categories)
-                                                )
-                                )
-                                .map(categories -> EventResponse.fromEntity(updatedEvent, categories))
-                )
-                .doOnSuccess(savedCategories -> log.info("Event categories updated successfully: {}", savedCategories))
+        return resolveCategories(request.getActivityTypes())
+                .flatMap(categories -> request.toUpdateEntity(event.getId(), imageKey)
+                        .doOnSuccess(entity -> log.info("Updating event with data: {}", entity))
+                        .flatMap(entity -> transactionalOperator.transactional(
+                                eventsRepository.update(entity)
+                                        .doOnSuccess(updatedEvent -> log.info("Event updated in repository with ID: {}", updatedEvent.getId()))
+                                        .flatMap(updatedEvent -> eventOccurrenceService.materialize(updatedEvent).thenReturn(updatedEvent))
+                                        .flatMap(updatedEvent -> eventCategoryRepository.deleteAllByEventId(event.getId())
+                                                .then(linkCategories(updatedEvent, categories))
+                                                .thenReturn(updatedEvent))))
+                        .doOnSuccess(updatedEvent -> {
+                            eventReadModel.upsert(updatedEvent);
+                            eventResponseCache.invalidate(updatedEvent.getId(), updatedEvent.getLastModifiedDate());
+                            searchResultCache.invalidate(event, null);
+                            searchResultCache.invalidate(updatedEvent, request.getActivityTypes());
+                        })
+                        .map(updatedEvent -> EventResponse.fromEntity(updatedEvent, categories)))
+                .doOnSuccess(response -> log.info("Event categories updated successfully: {}", response.getActivityTypes()))
                 .doOnError(ex -> log.error("Error updating event", ex));
     }
 
+    // Categories are resolved before the event transaction starts: the dictionary shares an insert between
+    // concurrent writers, so it must not join (and possibly roll back with) any single writer's transaction.
+    private Mono<List<Category>> resolveCategories(List<String> activityTypes) {
+        return Flux.fromIterable(activityTypes)
+                .flatMap(categoryDictionary::resolve)
+                .collectList();
+    }
+
+    private Mono<Void> linkCategories(Event event, List<Category> categories) {
+        return Flux.fromIterable(categories)
+                .concatMap(category -> eventCategoryRepository.save(EventCategories.from(event.getId(), category.getId())))
+                .then();
+    }
 
     private Mono<EventResponse> updateEventAndImage(Event event, EventRequest request, FilePart newImage) {
         AtomicReference<String> newImagePathRef = new AtomicReference<>();
@@ -146,14 +177,19 @@ public class EventService {
 
     public Mono<Void> deleteById(UUID eventId) {
         return eventsRepository.findById(eventId)
-                .switchIfEmpty(Mono.error(new EventNotFoundException("Event not found with id: " + eventId)))
+                .switchIfEmpty(Mono.defer(() -> notFound(eventId)))
                 .flatMap(event ->
                         s3Service.deleteFile(event.getImageKey())
                                 .doOnError(error -> log.error("Error deleting image for event {}: {}", eventId, error.getMessage()))
                                 .onErrorResume(error -> Mono.empty())
+                                .then(eventsRepository.deleteById(eventId))
+                                .then(eventCategoryRepository.deleteAllByEventId(eventId))
+                                .doOnSuccess(v -> {
+                                    eventReadModel.remove(eventId);
+                                    eventResponseCache.invalidate(eventId);
+                                    searchResultCache.invalidate(event, null);
+                                })
                 )
-                .then(eventsRepository.deleteById(eventId))
-                .then(eventCategoryRepository.deleteAllByEventId(eventId))
                 .doOnSuccess(e -> log.info("Successfully deleted event {} and its associated categories", eventId))
                 .doOnError(error -> log.error("Error deleting event {}: {}", eventId, error.getMessage(), error));
     }
@@ -0,0 +1,28 @@
+package com.whatstheplan.events.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "events.occurrences.horizon-job.enabled", havingValue = "true", matchIfMissing = true)
+public class OccurrenceHorizonScheduler {
+
+    private final EventOccurrenceService eventOccurrenceService;
+
+    @Scheduled(
+            initialDelayString = "${events.occurrences.horizon-job.initial-delay:PT1M}",
+            fixedDelayString = "${events.occurrences.horizon-job.interval:PT1H}")
+    public Mono<Void> extendHorizon() {
+        return eventOccurrenceService.extendHorizon()
+                .onErrorResume(ex -> {
+                    log.error("Error extending occurrence horizon", ex);
+                    return Mono.empty();
+                });
+    }
+}
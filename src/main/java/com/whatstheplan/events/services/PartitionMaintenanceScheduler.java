@@ -0,0 +1,28 @@
+package com.whatstheplan.events.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "events.partitions.maintenance-job.enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionMaintenanceScheduler {
+
+    private final EventPartitionService eventPartitionService;
+
+    @Scheduled(
+            initialDelayString = "${events.partitions.maintenance-job.initial-delay:PT1M}",
+            fixedDelayString = "${events.partitions.maintenance-job.interval:PT6H}")
+    public Mono<Void> maintainPartitions() {
+        return eventPartitionService.maintain()
+                .onErrorResume(ex -> {
+                    log.error("Error maintaining event partitions", ex);
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,30 @@
+package com.whatstheplan.events.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "events.read-model.eviction-job.enabled", havingValue = "true", matchIfMissing = true)
+public class ReadModelEvictionScheduler {
+
+    private final EventReadModel eventReadModel;
+
+    @Scheduled(
+            initialDelayString = "${events.read-model.eviction-job.initial-delay:PT10M}",
+            fixedDelayString = "${events.read-model.eviction-job.interval:PT10M}")
+    public void evictPastEvents() {
+        try {
+            int evicted = eventReadModel.evictBefore(LocalDateTime.now());
+            log.debug("Evicted {} past events from the read model", evicted);
+        } catch (RuntimeException ex) {
+            log.error("Error evicting past events from the read model", ex);
+        }
+    }
+}
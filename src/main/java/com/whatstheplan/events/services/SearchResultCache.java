@@ -0,0 +1,158 @@
+package com.whatstheplan.events.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.whatstheplan.events.config.SearchCacheProperties;
+import com.whatstheplan.events.model.EventChange;
+import com.whatstheplan.events.model.SearchView;
+import com.whatstheplan.events.model.entities.Event;
+import com.whatstheplan.events.model.request.EventFilterRequest;
+import com.whatstheplan.events.model.response.EventPageResponse;
+import com.whatstheplan.events.utils.GeoHashUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+public class SearchResultCache implements EventChangeListener {
+
+    private final AsyncCache<EventFilterRequest, EventPageResponse> cache;
+    private final long granularitySeconds;
+
+    public SearchResultCache(SearchCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .buildAsync();
+        this.granularitySeconds = Math.max(1, properties.getWindowGranularity().toSeconds());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "search.results");
+    }
+
+    // The normalized filter only keys the entry; the page is loaded for the caller's own filter, so the window
+    // widened to the granularity never reaches the query.
+    public Mono<EventPageResponse> get(EventFilterRequest filter,
+                                       Function<EventFilterRequest, Mono<EventPageResponse>> loader) {
+        EventFilterRequest key = normalize(filter);
+        return Mono.fromFuture(cache.get(key, (k, executor) -> loader.apply(filter).toFuture()), true);
+    }
+
+    // Goes through the async view so loads still in flight are dropped too: they may have read the rows before
+    // the write. Callers already waiting on them still get their page, it just is not kept.
+    public void invalidate(Event event, Collection<String> activityTypes) {
+        cache.asMap().keySet().removeIf(filter -> couldMatch(filter, event, activityTypes));
+        log.debug("Invalidated cached searches matching event {}", event.getId());
+    }
+
+    public void invalidateAll() {
+        cache.asMap().clear();
+    }
+
+    // Local writes already invalidated precisely; for another node's write the previous row is unknown here.
+    @Override
+    public Mono<Void> onEventChanged(EventChange change) {
+        return change.local() ? Mono.empty() : Mono.fromRunnable(this::invalidateAll);
+    }
+
+    @Override
+    public Mono<Void> onChangesMissed() {
+        return Mono.fromRunnable(this::invalidateAll);
+    }
+
+    EventFilterRequest normalize(EventFilterRequest filter) {
+        List<String> activityTypes = filter.getActivityTypes() == null
+                ? Collections.emptyList()
+                : filter.getActivityTypes().stream().filter(Objects::nonNull).distinct().sorted().toList();
+        String location = filter.getLocation() == null || filter.getLocation().isEmpty() ? null : filter.getLocation();
+        String q = filter.getQ() == null || filter.getQ().isBlank() ? null : filter.getQ().trim();
+
+        return filter.toBuilder()
+                .q(q)
+                .location(location)
+                .activityTypes(activityTypes)
+                .view(filter.getView() != null ? filter.getView() : SearchView.FULL)
+                .dateTimeFrom(floor(filter.getDateTimeFrom()))
+                .dateTimeTo(ceil(filter.getDateTimeTo()))
+                .build();
+    }
+
+    private static boolean couldMatch(EventFilterRequest filter, Event event, Collection<String> activityTypes) {
+        if (filter.getLocation() != null && !filter.getLocation().equals(event.getLocation())) {
+            return false;
+        }
+        if (!inRange(event.getDuration(), filter.getDurationFrom(), filter.getDurationTo())) {
+            return false;
+        }
+        if (!inRange(event.getCapacity(), filter.getCapacityMin(), filter.getCapacityMax())) {
+            return false;
+        }
+        if (activityTypes != null && !filter.getActivityTypes().isEmpty()
+                && Collections.disjoint(filter.getActivityTypes(), activityTypes)) {
+            return false;
+        }
+        if (!inRadius(filter, event)) {
+            return false;
+        }
+        return inWindow(filter, event);
+    }
+
+    private static boolean inRadius(EventFilterRequest filter, Event event) {
+        if (filter.getLat() == null || filter.getLon() == null || filter.getRadiusKm() == null) {
+            return true;
+        }
+        if (event.getLatitude() == null || event.getLongitude() == null) {
+            return false;
+        }
+        return GeoHashUtils.distanceKm(filter.getLat(), filter.getLon(), event.getLatitude(), event.getLongitude())
+                <= filter.getRadiusKm();
+    }
+
+    private static boolean inWindow(EventFilterRequest filter, Event event) {
+        LocalDateTime dateTime = event.getDateTime();
+        if (dateTime == null || filter.getDateTimeFrom() == null || filter.getDateTimeTo() == null) {
+            return true;
+        }
+        if (dateTime.isAfter(filter.getDateTimeTo())) {
+            return false;
+        }
+        if (event.getRecurrence() == null) {
+            return !dateTime.isBefore(filter.getDateTimeFrom());
+        }
+        return event.getSeriesEnd() == null || !event.getSeriesEnd().isBefore(filter.getDateTimeFrom());
+    }
+
+    private static <T extends Comparable<? super T>> boolean inRange(T value, T min, T max) {
+        if (value == null) {
+            return true;
+        }
+        return (min == null || value.compareTo(min) >= 0) && (max == null || value.compareTo(max) <= 0);
+    }
+
+    private LocalDateTime floor(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return null;
+        }
+        long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochSecond, granularitySeconds) * granularitySeconds, 0, ZoneOffset.UTC);
+    }
+
+    private LocalDateTime ceil(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return null;
+        }
+        LocalDateTime floored = floor(dateTime);
+        return floored.equals(dateTime) ? floored : floored.plus(Duration.ofSeconds(granularitySeconds));
+    }
+}
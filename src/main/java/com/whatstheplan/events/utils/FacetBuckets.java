@@ -0,0 +1,51 @@
+package com.whatstheplan.events.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.Duration;
+import java.util.List;
+
+@UtilityClass
+public class FacetBuckets {
+
+    public static final List<String> CAPACITY_LABELS = List.of("1-10", "11-25", "26-50", "51-100", "100+");
+    public static final List<String> DURATION_LABELS = List.of("0-1h", "1-2h", "2-4h", "4h+");
+
+    private static final int[] CAPACITY_UPPER_BOUNDS = {10, 25, 50, 100};
+    private static final int[] DURATION_UPPER_BOUNDS_SECONDS = {3_600, 7_200, 14_400};
+
+    public static Integer capacityBucket(Integer capacity) {
+        return capacity == null ? null : bucket(capacity, CAPACITY_UPPER_BOUNDS);
+    }
+
+    public static Integer durationBucket(Duration duration) {
+        return duration == null ? null : bucket(duration.toSeconds(), DURATION_UPPER_BOUNDS_SECONDS);
+    }
+
+    public static String capacityBucketSql(String column) {
+        return bucketSql(column, CAPACITY_UPPER_BOUNDS);
+    }
+
+    public static String durationBucketSql(String column) {
+        return bucketSql("EXTRACT(EPOCH FROM " + column + ")", DURATION_UPPER_BOUNDS_SECONDS);
+    }
+
+    private static int bucket(long value, int[] upperBounds) {
+        for (int i = 0; i < upperBounds.length; i++) {
+            if (value <= upperBounds[i]) {
+                return i;
+            }
+        }
+        return upperBounds.length;
+    }
+
+    private static String bucketSql(String expression, int[] upperBounds) {
+        StringBuilder sql = new StringBuilder("CASE");
+        for (int i = 0; i < upperBounds.length; i++) {
+            sql.append(" WHEN ").append(expression).append(" <= ").append(upperBounds[i]).append(" THEN ").append(i);
+        }
+        return sql.append(" WHEN ").append(expression).append(" IS NOT NULL THEN ").append(upperBounds.length)
+                .append(" END")
+                .toString();
+    }
+}
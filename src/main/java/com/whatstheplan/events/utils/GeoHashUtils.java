@@ -0,0 +1,108 @@
+package com.whatstheplan.events.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@UtilityClass
+public class GeoHashUtils {
+
+    public static final int MAX_PRECISION = 12;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int index = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    index = (index << 1) | 1;
+                    minLon = mid;
+                } else {
+                    index = index << 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    index = (index << 1) | 1;
+                    minLat = mid;
+                } else {
+                    index = index << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(index));
+                bit = 0;
+                index = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    public static String encode(double latitude, double longitude) {
+        return encode(latitude, longitude, MAX_PRECISION);
+    }
+
+    public static List<String> coveringCells(double latitude, double longitude, double radiusKm) {
+        double maxAbsLatitude = Math.min(90, Math.abs(latitude) + radiusKm / KM_PER_DEGREE);
+        double kmPerLonDegree = KM_PER_DEGREE * Math.cos(Math.toRadians(maxAbsLatitude));
+
+        int precision = 0;
+        for (int candidate = 1; candidate <= MAX_PRECISION; candidate++) {
+            if (cellHeight(candidate) * KM_PER_DEGREE < radiusKm || cellWidth(candidate) * kmPerLonDegree < radiusKm) {
+                break;
+            }
+            precision = candidate;
+        }
+        if (precision == 0) {
+            return List.of();
+        }
+
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+        Set<String> cells = new LinkedHashSet<>();
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            double cellLatitude = Math.max(-90, Math.min(90 - 1e-9, latitude + dLat * height));
+            for (int dLon = -1; dLon <= 1; dLon++) {
+                cells.add(encode(cellLatitude, normalizeLongitude(longitude + dLon * width), precision));
+            }
+        }
+        return List.copyOf(cells);
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static double cellHeight(int precision) {
+        return 180 / Math.pow(2, Math.floorDiv(5 * precision, 2));
+    }
+
+    private static double cellWidth(int precision) {
+        return 360 / Math.pow(2, Math.ceilDiv(5 * precision, 2));
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        double normalized = ((longitude + 180) % 360 + 360) % 360 - 180;
+        return normalized == 180 ? -180 : normalized;
+    }
+}
@@ -0,0 +1,283 @@
+package com.whatstheplan.events.utils;
+
+import com.whatstheplan.events.model.Recurrence;
+import lombok.experimental.UtilityClass;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+
+import static java.time.DayOfWeek.MONDAY;
+import static java.time.DayOfWeek.SUNDAY;
+import static java.time.temporal.TemporalAdjusters.previousOrSame;
+
+// Calendar arithmetic for the rule shapes generateRRule produces. Shapes that depend on ical4j specifics
+// (week start for multi-week BYDAY rules touching Sunday, month days past the 28th, leap days) are unsupported.
+@UtilityClass
+public class RecurrenceEvaluator {
+
+    private static final int ALL_WEEKDAYS = 0x7F;
+    private static final int LAST_SAFE_MONTH_DAY = 28;
+
+    public static boolean supports(Recurrence recurrence, LocalDateTime seed) {
+        if (recurrence == null || seed == null || recurrence.getFrequency() == null) {
+            return false;
+        }
+        List<String> byDays = orEmpty(recurrence.getByDays());
+        List<Integer> byMonthDay = orEmpty(recurrence.getByMonthDay());
+
+        return switch (recurrence.getFrequency()) {
+            case "DAILY" -> byMonthDay.isEmpty();
+            case "WEEKLY" -> byMonthDay.isEmpty()
+                    && (interval(recurrence) == 1
+                    || byDays.isEmpty()
+                    || !(byDays.contains("SU") || seed.getDayOfWeek() == SUNDAY));
+            case "MONTHLY" -> byDays.isEmpty()
+                    && (byMonthDay.isEmpty()
+                    ? seed.getDayOfMonth() <= LAST_SAFE_MONTH_DAY
+                    : byMonthDay.stream().allMatch(day -> day >= 1 && day <= LAST_SAFE_MONTH_DAY));
+            case "YEARLY" -> byDays.isEmpty()
+                    && byMonthDay.isEmpty()
+                    && !(seed.getMonth() == Month.FEBRUARY && seed.getDayOfMonth() == 29);
+            default -> false;
+        };
+    }
+
+    public static boolean occursBetween(Recurrence recurrence, LocalDateTime seed, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime first = firstOccurrenceAtOrAfter(recurrence, seed, from);
+        return first != null && !first.isAfter(to);
+    }
+
+    public static LocalDateTime firstOccurrenceAtOrAfter(Recurrence recurrence, LocalDateTime seed, LocalDateTime from) {
+        LocalDateTime until = recurrence.getUntil();
+        LocalDateTime start = from.isBefore(seed) ? seed : from;
+        if (until != null && start.isAfter(until)) {
+            return null;
+        }
+
+        LocalTime time = seed.toLocalTime();
+        LocalDate day = start.toLocalDate();
+        if (start.toLocalTime().isAfter(time)) {
+            day = day.plusDays(1);
+        }
+
+        LocalDate date = firstDate(recurrence, seed.toLocalDate(), day);
+        if (date == null) {
+            return null;
+        }
+        if (recurrence.getCount() != null && countBefore(recurrence, seed.toLocalDate(), date) >= recurrence.getCount()) {
+            return null;
+        }
+
+        LocalDateTime occurrence = date.atTime(time);
+        return until != null && occurrence.isAfter(until) ? null : occurrence;
+    }
+
+    private static LocalDate firstDate(Recurrence recurrence, LocalDate seed, LocalDate day) {
+        return switch (recurrence.getFrequency()) {
+            case "DAILY" -> firstDaily(interval(recurrence), weekdayMask(recurrence, seed), seed, day);
+            case "WEEKLY" -> firstWeekly(interval(recurrence), weekdayMask(recurrence, seed), seed, day);
+            case "MONTHLY" -> firstMonthly(interval(recurrence), monthDays(recurrence, seed), seed, day);
+            case "YEARLY" -> firstYearly(interval(recurrence), seed, day);
+            default -> throw new IllegalArgumentException("Unsupported frequency: " + recurrence.getFrequency());
+        };
+    }
+
+    private static long countBefore(Recurrence recurrence, LocalDate seed, LocalDate date) {
+        return switch (recurrence.getFrequency()) {
+            case "DAILY" -> countDailyBefore(interval(recurrence), weekdayMask(recurrence, seed), seed, date);
+            case "WEEKLY" -> countWeeklyBefore(interval(recurrence), weekdayMask(recurrence, seed), seed, date);
+            case "MONTHLY" -> countMonthlyBefore(interval(recurrence), monthDays(recurrence, seed), seed, date);
+            case "YEARLY" -> countYearlyBefore(interval(recurrence), seed, date);
+            default -> throw new IllegalArgumentException("Unsupported frequency: " + recurrence.getFrequency());
+        };
+    }
+
+    private static LocalDate firstDaily(int interval, int weekdays, LocalDate seed, LocalDate day) {
+        long step = Math.ceilDiv(ChronoUnit.DAYS.between(seed, day), interval);
+        LocalDate candidate = seed.plusDays(step * interval);
+        for (int i = 0; i < 7; i++) {
+            if (contains(weekdays, candidate.getDayOfWeek())) {
+                return candidate;
+            }
+            candidate = candidate.plusDays(interval);
+        }
+        return null;
+    }
+
+    private static long countDailyBefore(int interval, int weekdays, LocalDate seed, LocalDate date) {
+        long candidates = Math.ceilDiv(ChronoUnit.DAYS.between(seed, date), interval);
+        long perCycle = 0;
+        long partial = 0;
+        for (int i = 0; i < 7; i++) {
+            if (contains(weekdays, seed.plusDays((long) i * interval).getDayOfWeek())) {
+                perCycle++;
+                if (i < candidates % 7) {
+                    partial++;
+                }
+            }
+        }
+        return (candidates / 7) * perCycle + partial;
+    }
+
+    private static LocalDate firstWeekly(int interval, int weekdays, LocalDate seed, LocalDate day) {
+        LocalDate firstWeek = seed.with(previousOrSame(MONDAY));
+        long week = ChronoUnit.WEEKS.between(firstWeek, day.with(previousOrSame(MONDAY)));
+        LocalDate scanFrom = day;
+        if (week % interval != 0) {
+            week = Math.ceilDiv(week, interval) * interval;
+            scanFrom = firstWeek.plusWeeks(week);
+        }
+        for (int attempt = 0; attempt < 2; attempt++) {
+            LocalDate weekEnd = firstWeek.plusWeeks(week).plusDays(6);
+            for (LocalDate candidate = scanFrom; !candidate.isAfter(weekEnd); candidate = candidate.plusDays(1)) {
+                if (contains(weekdays, candidate.getDayOfWeek()) && !candidate.isBefore(seed)) {
+                    return candidate;
+                }
+            }
+            week += interval;
+            scanFrom = firstWeek.plusWeeks(week);
+        }
+        return null;
+    }
+
+    private static long countWeeklyBefore(int interval, int weekdays, LocalDate seed, LocalDate date) {
+        LocalDate firstWeek = seed.with(previousOrSame(MONDAY));
+        LocalDate dateWeek = date.with(previousOrSame(MONDAY));
+        long week = ChronoUnit.WEEKS.between(firstWeek, dateWeek);
+
+        long fullWeeks = Math.ceilDiv(week, interval);
+        long count = 0;
+        if (fullWeeks > 0) {
+            count = countWeekdays(weekdays, seed, firstWeek.plusDays(7)) + (fullWeeks - 1) * Integer.bitCount(weekdays);
+        }
+        if (week % interval == 0) {
+            count += countWeekdays(weekdays, week == 0 ? seed : dateWeek, date);
+        }
+        return count;
+    }
+
+    private static LocalDate firstMonthly(int interval, int[] monthDays, LocalDate seed, LocalDate day) {
+        YearMonth firstMonth = YearMonth.from(seed);
+        long month = ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(day));
+        int minDay = day.getDayOfMonth();
+        if (month % interval != 0) {
+            month = Math.ceilDiv(month, interval) * interval;
+            minDay = 1;
+        }
+        for (int monthDay : monthDays) {
+            if (monthDay >= minDay) {
+                return firstMonth.plusMonths(month).atDay(monthDay);
+            }
+        }
+        return firstMonth.plusMonths(month + interval).atDay(monthDays[0]);
+    }
+
+    private static long countMonthlyBefore(int interval, int[] monthDays, LocalDate seed, LocalDate date) {
+        long month = ChronoUnit.MONTHS.between(YearMonth.from(seed), YearMonth.from(date));
+
+        long fullMonths = Math.ceilDiv(month, interval);
+        long count = 0;
+        if (fullMonths > 0) {
+            count = countMonthDays(monthDays, seed.getDayOfMonth(), Integer.MAX_VALUE) + (fullMonths - 1) * monthDays.length;
+        }
+        if (month % interval == 0) {
+            count += countMonthDays(monthDays, month == 0 ? seed.getDayOfMonth() : 1, date.getDayOfMonth());
+        }
+        return count;
+    }
+
+    private static LocalDate firstYearly(int interval, LocalDate seed, LocalDate day) {
+        long year = Math.max(0, day.getYear() - seed.getYear());
+        if (year % interval != 0) {
+            year = Math.ceilDiv(year, interval) * interval;
+        }
+        LocalDate candidate = seed.plusYears(year);
+        return candidate.isBefore(day) ? seed.plusYears(year + interval) : candidate;
+    }
+
+    private static long countYearlyBefore(int interval, LocalDate seed, LocalDate date) {
+        long year = date.getYear() - seed.getYear();
+        long count = year / interval + 1;
+        if (year % interval == 0 && !seed.plusYears(year).isBefore(date)) {
+            count--;
+        }
+        return count;
+    }
+
+    private static long countWeekdays(int weekdays, LocalDate fromInclusive, LocalDate toExclusive) {
+        long count = 0;
+        for (LocalDate day = fromInclusive; day.isBefore(toExclusive); day = day.plusDays(1)) {
+            if (contains(weekdays, day.getDayOfWeek())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long countMonthDays(int[] monthDays, int fromInclusive, int toExclusive) {
+        long count = 0;
+        for (int monthDay : monthDays) {
+            if (monthDay >= fromInclusive && monthDay < toExclusive) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int weekdayMask(Recurrence recurrence, LocalDate seed) {
+        List<String> byDays = orEmpty(recurrence.getByDays());
+        if (byDays.isEmpty()) {
+            return "WEEKLY".equals(recurrence.getFrequency()) ? bit(seed.getDayOfWeek()) : ALL_WEEKDAYS;
+        }
+        int mask = 0;
+        for (String byDay : byDays) {
+            mask |= bit(toDayOfWeek(byDay));
+        }
+        return mask;
+    }
+
+    private static int[] monthDays(Recurrence recurrence, LocalDate seed) {
+        List<Integer> byMonthDay = orEmpty(recurrence.getByMonthDay());
+        if (byMonthDay.isEmpty()) {
+            return new int[]{seed.getDayOfMonth()};
+        }
+        return byMonthDay.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+    }
+
+    private static DayOfWeek toDayOfWeek(String byDay) {
+        return switch (byDay) {
+            case "MO" -> DayOfWeek.MONDAY;
+            case "TU" -> DayOfWeek.TUESDAY;
+            case "WE" -> DayOfWeek.WEDNESDAY;
+            case "TH" -> DayOfWeek.THURSDAY;
+            case "FR" -> DayOfWeek.FRIDAY;
+            case "SA" -> DayOfWeek.SATURDAY;
+            case "SU" -> DayOfWeek.SUNDAY;
+            default -> throw new IllegalArgumentException("Invalid day abbreviation: " + byDay);
+        };
+    }
+
+    private static int interval(Recurrence recurrence) {
+        Integer interval = recurrence.getInterval();
+        return interval == null || interval < 1 ? 1 : interval;
+    }
+
+    private static boolean contains(int mask, DayOfWeek dayOfWeek) {
+        return (mask & bit(dayOfWeek)) != 0;
+    }
+
+    private static int bit(DayOfWeek dayOfWeek) {
+        return 1 << (dayOfWeek.getValue() - 1);
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : Collections.emptyList();
+    }
+}
@@ -0,0 +1,37 @@
+package com.whatstheplan.events.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.whatstheplan.events.config.RecurrenceCacheProperties;
+import com.whatstheplan.events.model.CompiledRecurrence;
+import com.whatstheplan.events.model.Recurrence;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import static com.whatstheplan.events.utils.RecurrenceUtils.generateRRule;
+
+@Component
+public class RecurrenceRuleCache {
+
+    private final Cache<String, CompiledRecurrence> cache;
+
+    public RecurrenceRuleCache(RecurrenceCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recurrence.rules");
+    }
+
+    public CompiledRecurrence get(String rule) {
+        if (rule == null) {
+            return null;
+        }
+        return cache.get(rule, CompiledRecurrence::compile);
+    }
+
+    public CompiledRecurrence get(String rule, Recurrence recurrence) {
+        return rule != null ? get(rule) : get(generateRRule(recurrence));
+    }
+}
@@ -19,6 +19,8 @@ import static net.fortuna.ical4j.transform.recurrence.Frequency.YEARLY;
 @UtilityClass
 public class RecurrenceUtils {
 
+    private static final int MAX_SERIES_YEARS = 1000;
+
     public static String generateRRule(Recurrence recurrence) {
         if (recurrence == null) {
             return null;
@@ -75,7 +77,10 @@ public class RecurrenceUtils {
             return null;
         }
 
-        Recur<LocalDateTime> recur = new Recur<>(rule);
+        return toRecurrence(new Recur<>(rule));
+    }
+
+    public static Recurrence toRecurrence(Recur<LocalDateTime> recur) {
         return Recurrence.builder()
                 .frequency(Optional.ofNullable(recur.getFrequency()).map(Frequency::name).orElse(null))
                 .interval(recur.getInterval() != -1 ? recur.getInterval() : null)
@@ -90,4 +95,20 @@ public class RecurrenceUtils {
                 .count(recur.getCount() != -1 ? recur.getCount() : null)
                 .build();
     }
+
+    public static LocalDateTime seriesEnd(Recurrence recurrence, LocalDateTime seed) {
+        if (recurrence == null) {
+            return null;
+        }
+        if (recurrence.getUntil() != null) {
+            return recurrence.getUntil();
+        }
+        if (recurrence.getCount() == null || seed == null) {
+            return null;
+        }
+
+        List<LocalDateTime> occurrences = new Recur<LocalDateTime>(generateRRule(recurrence))
+                .getDates(seed, seed, seed.plusYears(MAX_SERIES_YEARS));
+        return occurrences.isEmpty() ? seed : Collections.max(occurrences);
+    }
 }
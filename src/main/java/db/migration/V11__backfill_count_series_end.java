@@ -0,0 +1,85 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import net.fortuna.ical4j.model.Recur;
+import net.fortuna.ical4j.transform.recurrence.Frequency;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// V5 only derived series_end from UNTIL. COUNT series get the date of their last occurrence and move to the
+// partition of their new active_until. The expansion is a frozen copy of how the application computed series ends
+// when this migration was written, so later changes to the application cannot change what it does.
+@Slf4j
+public class V11__backfill_count_series_end extends BaseJavaMigration {
+
+    private static final String FIND_COUNT_SERIES = """
+            SELECT id, date_time, recurrence
+            FROM event
+            WHERE recurrence LIKE '%COUNT=%'
+              AND series_end IS NULL
+              AND date_time IS NOT NULL
+            """;
+
+    private static final int MAX_SERIES_YEARS = 1000;
+    private static final Set<Frequency> FREQUENCIES =
+            EnumSet.of(Frequency.DAILY, Frequency.WEEKLY, Frequency.MONTHLY, Frequency.YEARLY);
+
+    private static final String SET_SERIES_END = """
+            UPDATE event
+            SET series_end   = ?,
+                active_until = event_active_until(recurrence, date_time, ?)
+            WHERE id = ?
+            """;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        int updated = 0;
+        try (PreparedStatement find = connection.prepareStatement(FIND_COUNT_SERIES);
+             PreparedStatement update = connection.prepareStatement(SET_SERIES_END);
+             ResultSet rows = find.executeQuery()) {
+            while (rows.next()) {
+                UUID id = rows.getObject("id", UUID.class);
+                LocalDateTime seed = rows.getObject("date_time", OffsetDateTime.class)
+                        .withOffsetSameInstant(ZoneOffset.UTC)
+                        .toLocalDateTime();
+                OffsetDateTime end;
+                try {
+                    end = seriesEnd(rows.getString("recurrence"), seed).atOffset(ZoneOffset.UTC);
+                } catch (RuntimeException ex) {
+                    // Left open-ended, which keeps the series searchable.
+                    log.warn("Unable to compute series end of event {}: {}", id, ex.getMessage());
+                    continue;
+                }
+                update.setObject(1, end);
+                update.setObject(2, end);
+                update.setObject(3, id);
+                update.addBatch();
+                updated++;
+            }
+            update.executeBatch();
+        }
+        log.info("Backfilled series end of {} COUNT series", updated);
+    }
+
+    private static LocalDateTime seriesEnd(String rule, LocalDateTime seed) {
+        Recur<LocalDateTime> recur = new Recur<>(rule);
+        if (!FREQUENCIES.contains(recur.getFrequency())) {
+            throw new IllegalArgumentException("Unsupported frequency " + recur.getFrequency());
+        }
+        List<LocalDateTime> occurrences = recur.getDates(seed, seed, seed.plusYears(MAX_SERIES_YEARS));
+        return occurrences.isEmpty() ? seed : Collections.max(occurrences);
+    }
+}
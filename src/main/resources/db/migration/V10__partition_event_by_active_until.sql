@@ -0,0 +1,281 @@
+-- event is range partitioned by the last instant a row can still be searched: the start of a one-off event and the
+-- series end of a recurring one. Open-ended series and undated rows use 'infinity' and live in event_open, so a
+-- series seeded long ago never ends up in an archived partition.
+CREATE OR REPLACE FUNCTION event_active_until(recurrence TEXT, date_time TIMESTAMPTZ, series_end TIMESTAMPTZ)
+    RETURNS TIMESTAMPTZ AS
+$$
+SELECT CASE
+           WHEN recurrence IS NULL THEN COALESCE(date_time, 'infinity')
+           ELSE COALESCE(series_end, 'infinity')
+           END
+$$ LANGUAGE sql IMMUTABLE;
+
+ALTER TABLE event RENAME TO event_unpartitioned;
+ALTER INDEX event_pkey RENAME TO event_unpartitioned_pkey;
+
+-- The partition key has to be part of the primary key, so event ids can no longer be referenced by foreign keys.
+-- Referential integrity and the cascading deletes move to the triggers below.
+ALTER TABLE event_categories DROP CONSTRAINT fk_event;
+ALTER TABLE event_occurrence DROP CONSTRAINT fk_occurrence_event;
+
+CREATE TABLE event
+(
+    id                    UUID                     NOT NULL,
+    title                 VARCHAR(255)             NOT NULL,
+    description           TEXT,
+    date_time             TIMESTAMP WITH TIME ZONE,
+    duration              INTERVAL,
+    location              VARCHAR(255),
+    capacity              INTEGER,
+    image_key             VARCHAR(255),
+    organizer_id          UUID,
+    created_date          TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    last_modified_date    TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    recurrence            TEXT,
+    occurrences_until     TIMESTAMP WITH TIME ZONE,
+    series_end            TIMESTAMP WITH TIME ZONE,
+    latitude              DOUBLE PRECISION,
+    longitude             DOUBLE PRECISION,
+    geohash               VARCHAR(12) COLLATE "C",
+    search_vector         TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', COALESCE(title, '')), 'A') ||
+        setweight(to_tsvector('english', COALESCE(description, '')), 'B')
+        ) STORED,
+    activity_mask         BIGINT                   NOT NULL DEFAULT 0,
+    active_until          TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT event_pkey PRIMARY KEY (id, active_until)
+) PARTITION BY RANGE (active_until);
+
+CREATE TABLE event_open PARTITION OF event FOR VALUES FROM ('infinity') TO (MAXVALUE);
+CREATE TABLE event_default PARTITION OF event DEFAULT;
+
+-- Creates the monthly partition holding p_month, moving any rows the default partition already holds for it.
+-- Rows are moved with the maintenance flag set so the triggers neither cascade nor notify.
+CREATE OR REPLACE FUNCTION create_event_partition(p_month DATE) RETURNS TEXT AS
+$$
+DECLARE
+    lower_bound TIMESTAMPTZ := date_trunc('month', p_month);
+    upper_bound TIMESTAMPTZ := date_trunc('month', p_month) + INTERVAL '1 month';
+    partition   TEXT        := 'event_p' || to_char(p_month, 'YYYY_MM');
+    columns     TEXT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('event_partitions'));
+    IF to_regclass(partition) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+
+    SELECT string_agg(quote_ident(column_name), ', ' ORDER BY ordinal_position)
+    INTO columns
+    FROM information_schema.columns
+    WHERE table_schema = current_schema()
+      AND table_name = 'event'
+      AND is_generated = 'NEVER';
+
+    PERFORM set_config('events.partition_maintenance', 'on', true);
+    EXECUTE format('CREATE TEMP TABLE event_moving ON COMMIT DROP AS SELECT %s FROM event_default '
+                       || 'WHERE active_until >= %L AND active_until < %L', columns, lower_bound, upper_bound);
+    EXECUTE format('DELETE FROM event_default WHERE active_until >= %L AND active_until < %L', lower_bound, upper_bound);
+    EXECUTE format('CREATE TABLE %I PARTITION OF event FOR VALUES FROM (%L) TO (%L)', partition, lower_bound, upper_bound);
+    EXECUTE format('INSERT INTO event (%s) SELECT %s FROM event_moving', columns, columns);
+    DROP TABLE event_moving;
+    PERFORM set_config('events.partition_maintenance', 'off', true);
+    RETURN partition;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches the monthly partitions that ended before p_before and renames them to event_archive_YYYY_MM. Their
+-- categories and occurrences are kept so an archive can be attached again.
+CREATE OR REPLACE FUNCTION archive_event_partitions(p_before TIMESTAMPTZ) RETURNS SETOF TEXT AS
+$$
+DECLARE
+    partition TEXT;
+    archived  TEXT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('event_partitions'));
+    FOR partition IN
+        SELECT c.relname
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = to_regclass('event')
+          AND c.relname ~ '^event_p[0-9]{4}_[0-9]{2}$'
+          AND to_date(substr(c.relname, 8), 'YYYY_MM') + INTERVAL '1 month' <= p_before
+        ORDER BY c.relname
+        LOOP
+            archived := 'event_archive_' || substr(partition, 8);
+            EXECUTE format('ALTER TABLE event DETACH PARTITION %I', partition);
+            EXECUTE format('ALTER TABLE %I RENAME TO %I', partition, archived);
+            RETURN NEXT archived;
+        END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Monthly partitions are only created from the retention cutoff on (events.partitions.retention, 90 days by
+-- default). Rows that ended before it would be archived by the first maintenance run anyway, so they go straight
+-- into event_archive_backfill instead of each getting a partition of their own.
+DO
+$$
+    DECLARE
+        month DATE;
+    BEGIN
+        SELECT date_trunc('month', GREATEST(now() - INTERVAL '90 days',
+                                            LEAST(now(), min(event_active_until(recurrence, date_time, series_end)))))
+        INTO month
+        FROM event_unpartitioned
+        WHERE event_active_until(recurrence, date_time, series_end) <> 'infinity';
+
+        WHILE month < now() + INTERVAL '3 months'
+            LOOP
+                PERFORM create_event_partition(month);
+                month := month + INTERVAL '1 month';
+            END LOOP;
+    END
+$$;
+
+CREATE TABLE event_archive_backfill (LIKE event INCLUDING DEFAULTS INCLUDING GENERATED);
+ALTER TABLE event_archive_backfill ADD PRIMARY KEY (id, active_until);
+
+INSERT INTO event_archive_backfill (id, title, description, date_time, duration, location, capacity, image_key,
+                                    organizer_id, created_date, last_modified_date, recurrence, occurrences_until,
+                                    series_end, latitude, longitude, geohash, activity_mask, active_until)
+SELECT id,
+       title,
+       description,
+       date_time,
+       duration,
+       location,
+       capacity,
+       image_key,
+       organizer_id,
+       created_date,
+       last_modified_date,
+       recurrence,
+       occurrences_until,
+       series_end,
+       latitude,
+       longitude,
+       geohash,
+       activity_mask,
+       event_active_until(recurrence, date_time, series_end)
+FROM event_unpartitioned
+WHERE event_active_until(recurrence, date_time, series_end) < date_trunc('month', now() - INTERVAL '90 days');
+
+INSERT INTO event (id, title, description, date_time, duration, location, capacity, image_key, organizer_id,
+                   created_date, last_modified_date, recurrence, occurrences_until, series_end, latitude, longitude,
+                   geohash, activity_mask, active_until)
+SELECT id,
+       title,
+       description,
+       date_time,
+       duration,
+       location,
+       capacity,
+       image_key,
+       organizer_id,
+       created_date,
+       last_modified_date,
+       recurrence,
+       occurrences_until,
+       series_end,
+       latitude,
+       longitude,
+       geohash,
+       activity_mask,
+       event_active_until(recurrence, date_time, series_end)
+FROM event_unpartitioned
+WHERE event_active_until(recurrence, date_time, series_end) >= date_trunc('month', now() - INTERVAL '90 days');
+
+DROP TABLE event_unpartitioned;
+
+-- idx_event_date_time and idx_event_datetime were covered by idx_event_date_time_id and are not recreated.
+CREATE INDEX idx_event_organizer_id ON event (organizer_id);
+CREATE INDEX idx_event_location ON event (location);
+CREATE INDEX idx_event_date_time_id ON event (date_time, id);
+CREATE INDEX idx_event_recurrence ON event (recurrence) WHERE recurrence IS NOT NULL;
+CREATE INDEX idx_event_occurrences_until ON event (occurrences_until);
+CREATE INDEX idx_event_recurring_series_window ON event (series_end, date_time) WHERE recurrence IS NOT NULL;
+CREATE INDEX idx_event_geohash ON event (geohash);
+CREATE INDEX idx_event_search_vector ON event USING GIN (search_vector);
+
+CREATE OR REPLACE FUNCTION check_event_exists() RETURNS TRIGGER AS
+$$
+BEGIN
+    PERFORM 1 FROM event WHERE id = NEW.event_id FOR KEY SHARE;
+    IF NOT FOUND THEN
+        RAISE foreign_key_violation USING
+            MESSAGE = format('insert or update on table "%s" references missing event %s', TG_TABLE_NAME, NEW.event_id);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_event_categories_event_exists
+    BEFORE INSERT OR UPDATE OF event_id
+    ON event_categories
+    FOR EACH ROW
+EXECUTE FUNCTION check_event_exists();
+
+CREATE TRIGGER trg_event_occurrence_event_exists
+    BEFORE INSERT OR UPDATE OF event_id
+    ON event_occurrence
+    FOR EACH ROW
+EXECUTE FUNCTION check_event_exists();
+
+-- An update that changes active_until moves the row as a delete plus an insert. AFTER triggers run once the
+-- statement is done, so the children are only removed when no row is left for the id.
+CREATE OR REPLACE FUNCTION delete_event_children() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF current_setting('events.partition_maintenance', true) = 'on'
+        OR EXISTS (SELECT 1 FROM event WHERE id = OLD.id) THEN
+        RETURN NULL;
+    END IF;
+
+    DELETE FROM event_occurrence WHERE event_id = OLD.id;
+    DELETE FROM event_categories WHERE event_id = OLD.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_event_delete_children
+    AFTER DELETE
+    ON event
+    FOR EACH ROW
+EXECUTE FUNCTION delete_event_children();
+
+CREATE OR REPLACE FUNCTION notify_event_change() RETURNS TRIGGER AS
+$$
+DECLARE
+    changed JSONB;
+BEGIN
+    -- Row triggers on event run on its partitions, so the table is reported by its partition root.
+    IF current_setting('events.partition_maintenance', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'DELETE' THEN
+        changed := to_jsonb(OLD);
+    ELSE
+        changed := to_jsonb(NEW);
+    END IF;
+
+    PERFORM pg_notify('event_changes', jsonb_build_object(
+            'id', changed ->> TG_ARGV[0],
+            'op', TG_OP,
+            'table', (SELECT relname FROM pg_class WHERE oid = COALESCE(pg_partition_root(TG_RELID), TG_RELID)),
+            'node', current_setting('application_name', true))::TEXT);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_event_notify_insert_delete
+    AFTER INSERT OR DELETE
+    ON event
+    FOR EACH ROW
+EXECUTE FUNCTION notify_event_change('id');
+
+CREATE TRIGGER trg_event_notify_update
+    AFTER UPDATE
+    ON event
+    FOR EACH ROW
+    WHEN (OLD.last_modified_date IS DISTINCT FROM NEW.last_modified_date)
+EXECUTE FUNCTION notify_event_change('id');
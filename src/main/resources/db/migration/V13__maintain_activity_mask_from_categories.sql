@@ -0,0 +1,92 @@
+-- activity_mask is derived from the event's categories, so it is kept in sync by the rows that define it. Writes
+-- through the application set it as well to have it on the returned row; anything else that links or unlinks
+-- categories, such as scripts and backfills, no longer has to. Bits follow ActivityType declaration order and
+-- categories outside it set no bit.
+CREATE OR REPLACE FUNCTION activity_type_bit(name TEXT) RETURNS INTEGER AS
+$$
+SELECT array_position(ARRAY [
+               'Soccer',
+               'Basketball',
+               'Tennis',
+               'Swimming',
+               'Running',
+               'Cycling',
+               'Golf',
+               'Baseball',
+               'Martial Arts',
+               'Yoga',
+               'Snowboarding',
+               'Climbing',
+               'Music',
+               'Arts',
+               'Technology',
+               'Education',
+               'Outdoors',
+               'Food & Dining',
+               'Social Events',
+               'Wellness & Fitness',
+               'Networking',
+               'Gaming',
+               'Travel',
+               'Volunteering',
+               'Shopping',
+               'Reading',
+               'Writing',
+               'Photography',
+               'Gardening',
+               'Cooking',
+               'Baking',
+               'Fashion & Style',
+               'Film & Movies',
+               'Fitness & Bodybuilding',
+               'Meditation & Mindfulness',
+               'Fishing',
+               'Hiking',
+               'Board Games',
+               'Dancing',
+               'Language Learning',
+               'Painting'
+           ], name) - 1
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION event_activity_mask(p_event_id UUID) RETURNS BIGINT AS
+$$
+SELECT COALESCE(bit_or(CAST(1 AS BIGINT) << activity_type_bit(c.name)), 0)
+FROM event_categories ec
+         JOIN category c ON c.id = ec.category_id
+WHERE ec.event_id = p_event_id
+  AND activity_type_bit(c.name) IS NOT NULL
+$$ LANGUAGE sql STABLE;
+
+-- Statement triggers recompute each affected event once, however many categories the statement linked.
+CREATE OR REPLACE FUNCTION sync_event_activity_mask() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE event e
+        SET activity_mask = event_activity_mask(e.id)
+        WHERE e.id IN (SELECT DISTINCT event_id FROM linked)
+          AND e.activity_mask <> event_activity_mask(e.id);
+    ELSE
+        UPDATE event e
+        SET activity_mask = event_activity_mask(e.id)
+        WHERE e.id IN (SELECT DISTINCT event_id FROM unlinked)
+          AND e.activity_mask <> event_activity_mask(e.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_event_categories_mask_insert
+    AFTER INSERT
+    ON event_categories
+    REFERENCING NEW TABLE AS linked
+    FOR EACH STATEMENT
+EXECUTE FUNCTION sync_event_activity_mask();
+
+CREATE TRIGGER trg_event_categories_mask_delete
+    AFTER DELETE
+    ON event_categories
+    REFERENCING OLD TABLE AS unlinked
+    FOR EACH STATEMENT
+EXECUTE FUNCTION sync_event_activity_mask();
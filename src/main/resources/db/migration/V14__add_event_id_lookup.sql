@@ -0,0 +1,138 @@
+-- event's primary key is (id, active_until), so a lookup by id alone has to probe the index of every partition.
+-- event_id_lookup maps each id to the active_until it is stored under; reads and writes by id join through it and
+-- only touch the partition holding the row. Ids whose partition was archived keep their row with archived_in set
+-- to the archive table, which lets reads tell an archived event apart from one that never existed.
+CREATE TABLE event_id_lookup
+(
+    id           UUID                     NOT NULL PRIMARY KEY,
+    active_until TIMESTAMP WITH TIME ZONE NOT NULL,
+    archived_in  TEXT
+);
+
+INSERT INTO event_id_lookup (id, active_until)
+SELECT id, active_until
+FROM event
+ON CONFLICT (id) DO NOTHING;
+
+-- An update that changes active_until may run as a delete plus an insert in either order, so a delete only removes
+-- the entry when it still points at the deleted row. Partition maintenance moves rows without changing the key.
+CREATE OR REPLACE FUNCTION maintain_event_id_lookup() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF current_setting('events.partition_maintenance', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM event_id_lookup WHERE id = OLD.id AND active_until = OLD.active_until;
+    ELSE
+        INSERT INTO event_id_lookup (id, active_until)
+        VALUES (NEW.id, NEW.active_until)
+        ON CONFLICT (id) DO UPDATE SET active_until = EXCLUDED.active_until, archived_in = NULL;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_event_id_lookup_insert_delete
+    AFTER INSERT OR DELETE
+    ON event
+    FOR EACH ROW
+EXECUTE FUNCTION maintain_event_id_lookup();
+
+CREATE TRIGGER trg_event_id_lookup_update
+    AFTER UPDATE OF active_until
+    ON event
+    FOR EACH ROW
+    WHEN (OLD.active_until IS DISTINCT FROM NEW.active_until)
+EXECUTE FUNCTION maintain_event_id_lookup();
+
+CREATE OR REPLACE FUNCTION check_event_exists() RETURNS TRIGGER AS
+$$
+BEGIN
+    PERFORM 1
+    FROM event_id_lookup l
+             JOIN event e ON e.id = l.id AND e.active_until = l.active_until
+    WHERE l.id = NEW.event_id
+    FOR KEY SHARE OF e;
+    IF NOT FOUND THEN
+        RAISE foreign_key_violation USING
+            MESSAGE = format('insert or update on table "%s" references missing event %s', TG_TABLE_NAME, NEW.event_id);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Categories of archived events move along with them so an archive can still be attached again. Occurrences are
+-- derived from the recurrence rule and are dropped; they are materialized again if an archive is ever reattached.
+CREATE TABLE event_categories_archive (LIKE event_categories INCLUDING ALL);
+
+CREATE OR REPLACE FUNCTION archive_event_children(p_archive TEXT) RETURNS VOID AS
+$$
+BEGIN
+    EXECUTE format('INSERT INTO event_id_lookup (id, active_until, archived_in) '
+                       || 'SELECT a.id, a.active_until, %L FROM %I a '
+                       || 'ON CONFLICT (id) DO UPDATE SET archived_in = EXCLUDED.archived_in '
+                       || 'WHERE event_id_lookup.active_until = EXCLUDED.active_until', p_archive, p_archive);
+
+    INSERT INTO event_categories_archive
+    SELECT ec.*
+    FROM event_categories ec
+             JOIN event_id_lookup l ON l.id = ec.event_id
+    WHERE l.archived_in = p_archive;
+
+    DELETE FROM event_categories ec USING event_id_lookup l
+    WHERE l.id = ec.event_id
+      AND l.archived_in = p_archive;
+
+    DELETE FROM event_occurrence o USING event_id_lookup l
+    WHERE l.id = o.event_id
+      AND l.archived_in = p_archive;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches the monthly partitions that ended before p_before and renames them to event_archive_YYYY_MM. Detaching
+-- fires no row triggers, so the archived ids and their children are handled here.
+CREATE OR REPLACE FUNCTION archive_event_partitions(p_before TIMESTAMPTZ) RETURNS SETOF TEXT AS
+$$
+DECLARE
+    partition TEXT;
+    archived  TEXT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('event_partitions'));
+    FOR partition IN
+        SELECT c.relname
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = to_regclass('event')
+          AND c.relname ~ '^event_p[0-9]{4}_[0-9]{2}$'
+          AND to_date(substr(c.relname, 8), 'YYYY_MM') + INTERVAL '1 month' <= p_before
+        ORDER BY c.relname
+        LOOP
+            archived := 'event_archive_' || substr(partition, 8);
+            EXECUTE format('ALTER TABLE event DETACH PARTITION %I', partition);
+            EXECUTE format('ALTER TABLE %I RENAME TO %I', partition, archived);
+            PERFORM archive_event_children(archived);
+            RETURN NEXT archived;
+        END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Archives detached before this migration still hold the children of their events.
+DO
+$$
+    DECLARE
+        archive TEXT;
+    BEGIN
+        FOR archive IN
+            SELECT c.relname
+            FROM pg_class c
+            WHERE c.relname ~ '^event_archive_(backfill|[0-9]{4}_[0-9]{2})$'
+              AND c.relkind = 'r'
+              AND c.relnamespace = to_regnamespace(current_schema())
+            ORDER BY c.relname
+            LOOP
+                PERFORM archive_event_children(archive);
+            END LOOP;
+    END
+$$;
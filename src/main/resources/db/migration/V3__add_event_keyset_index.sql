@@ -0,0 +1 @@
+CREATE INDEX idx_event_date_time_id ON event (date_time, id);
@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS event_occurrence
+(
+    event_id   UUID                     NOT NULL,
+    start_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    end_time   TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (event_id, start_time),
+    CONSTRAINT fk_occurrence_event
+        FOREIGN KEY (event_id)
+            REFERENCES event (id)
+            ON DELETE CASCADE
+);
+CREATE INDEX idx_event_occurrence_start_time ON event_occurrence (start_time, event_id);
+
+ALTER TABLE IF EXISTS event
+    ADD COLUMN occurrences_until TIMESTAMP WITH TIME ZONE;
+
+CREATE INDEX idx_event_occurrences_until ON event (occurrences_until);
+
+INSERT INTO event_occurrence (event_id, start_time, end_time)
+SELECT id, date_time, date_time + COALESCE(duration, INTERVAL '0')
+FROM event
+WHERE recurrence IS NULL
+  AND date_time IS NOT NULL;
+
+UPDATE event
+SET occurrences_until = 'infinity'
+WHERE recurrence IS NULL
+  AND date_time IS NOT NULL;
@@ -0,0 +1,8 @@
+ALTER TABLE IF EXISTS event
+    ADD COLUMN series_end TIMESTAMP WITH TIME ZONE;
+
+UPDATE event
+SET series_end = to_timestamp(substring(recurrence FROM 'UNTIL=([0-9]{8}T[0-9]{6})'), 'YYYYMMDD"T"HH24MISS')
+WHERE recurrence IS NOT NULL;
+
+CREATE INDEX idx_event_recurring_series_window ON event (series_end, date_time) WHERE recurrence IS NOT NULL;
@@ -0,0 +1,6 @@
+ALTER TABLE IF EXISTS event
+    ADD COLUMN latitude  DOUBLE PRECISION,
+    ADD COLUMN longitude DOUBLE PRECISION,
+    ADD COLUMN geohash   VARCHAR(12) COLLATE "C";
+
+CREATE INDEX idx_event_geohash ON event (geohash);
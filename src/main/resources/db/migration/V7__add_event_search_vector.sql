@@ -0,0 +1,7 @@
+ALTER TABLE IF EXISTS event
+    ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', COALESCE(title, '')), 'A') ||
+        setweight(to_tsvector('english', COALESCE(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_event_search_vector ON event USING GIN (search_vector);
@@ -0,0 +1,54 @@
+ALTER TABLE IF EXISTS event
+    ADD COLUMN activity_mask BIGINT NOT NULL DEFAULT 0;
+
+UPDATE event e
+SET activity_mask = m.mask
+FROM (SELECT ec.event_id,
+             bit_or(CAST(1 AS BIGINT) << (array_position(ARRAY [
+        'Soccer',
+        'Basketball',
+        'Tennis',
+        'Swimming',
+        'Running',
+        'Cycling',
+        'Golf',
+        'Baseball',
+        'Martial Arts',
+        'Yoga',
+        'Snowboarding',
+        'Climbing',
+        'Music',
+        'Arts',
+        'Technology',
+        'Education',
+        'Outdoors',
+        'Food & Dining',
+        'Social Events',
+        'Wellness & Fitness',
+        'Networking',
+        'Gaming',
+        'Travel',
+        'Volunteering',
+        'Shopping',
+        'Reading',
+        'Writing',
+        'Photography',
+        'Gardening',
+        'Cooking',
+        'Baking',
+        'Fashion & Style',
+        'Film & Movies',
+        'Fitness & Bodybuilding',
+        'Meditation & Mindfulness',
+        'Fishing',
+        'Hiking',
+        'Board Games',
+        'Dancing',
+        'Language Learning',
+        'Painting'
+                 ], c.name) - 1)) AS mask
+      FROM event_categories ec
+               JOIN category c ON ec.category_id = c.id
+      GROUP BY ec.event_id) m
+WHERE e.id = m.event_id
+  AND m.mask IS NOT NULL;
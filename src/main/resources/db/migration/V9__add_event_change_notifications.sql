@@ -0,0 +1,39 @@
+CREATE OR REPLACE FUNCTION notify_event_change() RETURNS TRIGGER AS
+$$
+DECLARE
+    changed JSONB;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        changed := to_jsonb(OLD);
+    ELSE
+        changed := to_jsonb(NEW);
+    END IF;
+
+    PERFORM pg_notify('event_changes', jsonb_build_object(
+            'id', changed ->> TG_ARGV[0],
+            'op', TG_OP,
+            'table', TG_TABLE_NAME,
+            'node', current_setting('application_name', true))::TEXT);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_event_notify_insert_delete
+    AFTER INSERT OR DELETE
+    ON event
+    FOR EACH ROW
+EXECUTE FUNCTION notify_event_change('id');
+
+-- Occurrence materialization only moves occurrences_until, so updates notify when the row version changes.
+CREATE TRIGGER trg_event_notify_update
+    AFTER UPDATE
+    ON event
+    FOR EACH ROW
+    WHEN (OLD.last_modified_date IS DISTINCT FROM NEW.last_modified_date)
+EXECUTE FUNCTION notify_event_change('id');
+
+CREATE TRIGGER trg_event_categories_notify
+    AFTER INSERT OR UPDATE OR DELETE
+    ON event_categories
+    FOR EACH ROW
+EXECUTE FUNCTION notify_event_change('event_id');
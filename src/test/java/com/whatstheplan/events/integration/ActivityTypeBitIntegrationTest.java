@@ -0,0 +1,52 @@
+package com.whatstheplan.events.integration;
+
+import com.whatstheplan.events.model.ActivityType;
+import com.whatstheplan.events.testconfig.BaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityTypeBitIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void whenMappingEveryActivityTypeInDatabase_thenShouldMatchEnumBits() {
+        // given
+        Map<String, Long> expected = Arrays.stream(ActivityType.values())
+                .collect(Collectors.toMap(ActivityType::getName, ActivityType::bit));
+
+        // when
+        Map<String, Long> actual = Arrays.stream(ActivityType.values())
+                .map(ActivityType::getName)
+                .collect(Collectors.toMap(Function.identity(), name -> databaseClient
+                        .sql("SELECT COALESCE(CAST(1 AS BIGINT) << activity_type_bit(:name), 0) AS bit")
+                        .bind("name", name)
+                        .map((row, rowMetadata) -> row.get("bit", Long.class))
+                        .one()
+                        .block()));
+
+        // then
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void whenCategoryIsNotAnActivityType_thenShouldHaveNoBit() {
+        // when
+        Boolean missing = databaseClient.sql("SELECT activity_type_bit('Knitting') IS NULL AS missing")
+                .map((row, rowMetadata) -> row.get("missing", Boolean.class))
+                .one()
+                .block();
+
+        // then
+        assertThat(missing).isTrue();
+    }
+}
@@ -0,0 +1,75 @@
+package com.whatstheplan.events.integration;
+
+import com.whatstheplan.events.model.EventChange;
+import com.whatstheplan.events.model.entities.Event;
+import com.whatstheplan.events.services.EventChangeFeed;
+import com.whatstheplan.events.testconfig.BaseIntegrationTest;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static com.whatstheplan.events.testconfig.utils.DataMockUtils.generateEventEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventChangeFeedIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private EventChangeFeed eventChangeFeed;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void whenEventIsWrittenLocallyAndByAnotherNode_thenShouldPublishBothWithOrigin() {
+        // given
+        Event event = generateEventEntity();
+        awaitListening();
+
+        // when - then
+        StepVerifier.create(eventChangeFeed.changes()
+                        .filter(change -> change.eventId().equals(event.getId()))
+                        .take(2))
+                .then(() -> eventsRepository.insert(event).block())
+                .assertNext(change -> {
+                    assertThat(change.operation()).isEqualTo(EventChange.Operation.INSERT);
+                    assertThat(change.table()).isEqualTo("event");
+                    assertThat(change.local()).isTrue();
+                })
+                .then(() -> updateFromAnotherNode(event).block())
+                .assertNext(change -> {
+                    assertThat(change.operation()).isEqualTo(EventChange.Operation.UPDATE);
+                    assertThat(change.node()).isEqualTo("other-node");
+                    assertThat(change.local()).isFalse();
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private void awaitListening() {
+        Mono.fromCallable(eventChangeFeed::isListening)
+                .filter(Boolean::booleanValue)
+                .repeatWhenEmpty(repeats -> repeats.delayElements(Duration.ofMillis(50)))
+                .block(Duration.ofSeconds(5));
+    }
+
+    private Mono<Void> updateFromAnotherNode(Event event) {
+        return databaseClient.inConnection(connection -> execute(connection.createStatement("SET application_name TO 'other-node'"))
+                .then(execute(connection
+                        .createStatement("UPDATE event SET last_modified_date = now() WHERE id = $1")
+                        .bind("$1", event.getId())))
+                .then(execute(connection.createStatement("RESET application_name"))));
+    }
+
+    private static Mono<Void> execute(Statement statement) {
+        return Flux.from(statement.execute())
+                .flatMap(Result::getRowsUpdated)
+                .then();
+    }
+}
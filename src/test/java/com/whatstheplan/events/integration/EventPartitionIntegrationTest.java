@@ -0,0 +1,114 @@
+package com.whatstheplan.events.integration;
+
+import com.whatstheplan.events.model.entities.Category;
+import com.whatstheplan.events.model.entities.Event;
+import com.whatstheplan.events.model.entities.EventCategories;
+import com.whatstheplan.events.model.response.ErrorResponse;
+import com.whatstheplan.events.repository.EventPartitionRepository;
+import com.whatstheplan.events.services.EventPartitionService;
+import com.whatstheplan.events.testconfig.BaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static com.whatstheplan.events.testconfig.utils.DataMockUtils.TODAY;
+import static com.whatstheplan.events.testconfig.utils.DataMockUtils.generateEventCategory;
+import static com.whatstheplan.events.testconfig.utils.DataMockUtils.generateEventEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventPartitionIntegrationTest extends BaseIntegrationTest {
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Autowired
+    private EventPartitionRepository eventPartitionRepository;
+
+    @Autowired
+    private EventPartitionService eventPartitionService;
+
+    @Test
+    void whenUpdateMovesEventToAnotherMonth_thenShouldMoveRowAndKeepCategories() {
+        // given
+        eventPartitionService.maintain().block();
+        Event event = generateEventEntity();
+        event.setRecurrence(null);
+        eventsRepository.insert(event).block();
+        Category category = categoryRepository.save(generateEventCategory("Soccer")).block();
+        eventCategoriesRepository.save(EventCategories.from(event.getId(), category.getId())).block();
+
+        // when
+        event.setDateTime(TODAY.plusMonths(2));
+        Event updated = eventsRepository.update(event).block();
+
+        // then
+        assertThat(updated).isNotNull();
+        assertThat(updated.getDateTime()).isEqualTo(TODAY.plusMonths(2));
+        assertThat(eventPartitionRepository.findPartition(event.getId()).block())
+                .isEqualTo(partition(TODAY.plusMonths(2).toLocalDate()));
+        assertThat(eventsRepository.findById(event.getId()).block()).isNotNull();
+        assertThat(eventCategoriesRepository.findAll().collectList().block())
+                .extracting(EventCategories::getEventId)
+                .containsExactly(event.getId());
+    }
+
+    @Test
+    void whenMaintainingPartitions_thenShouldArchivePastMonthsButKeepRecurringSeries() {
+        // given
+        LocalDate pastMonth = TODAY.minusMonths(6).toLocalDate();
+        eventPartitionRepository.createPartition(pastMonth).block();
+
+        Event past = generateEventEntity();
+        past.setRecurrence(null);
+        past.setDateTime(TODAY.minusMonths(6));
+        Event weekly = generateEventEntity();
+        weekly.setRecurrence("FREQ=WEEKLY");
+        weekly.setDateTime(TODAY.minusMonths(6));
+        eventsRepository.insert(past).block();
+        eventsRepository.insert(weekly).block();
+
+        // when
+        eventPartitionService.maintain().block();
+
+        // then
+        assertThat(eventsRepository.findById(past.getId()).block()).isNull();
+        assertThat(eventsRepository.findById(weekly.getId()).block()).isNotNull();
+        assertThat(eventPartitionRepository.findPartition(weekly.getId()).block()).isEqualTo("event_open");
+        assertThat(eventPartitionRepository.createPartition(TODAY.plusMonths(3).toLocalDate()).blockOptional())
+                .isEmpty();
+    }
+
+    @Test
+    void whenEventWasArchived_thenShouldMoveItsCategoriesAndReturnGone() {
+        // given
+        LocalDate archivedMonth = TODAY.minusMonths(7).toLocalDate();
+        eventPartitionRepository.createPartition(archivedMonth).block();
+        Event past = generateEventEntity();
+        past.setRecurrence(null);
+        past.setDateTime(TODAY.minusMonths(7));
+        eventsRepository.insert(past).block();
+        Category category = categoryRepository.save(generateEventCategory("Tennis")).block();
+        eventCategoriesRepository.save(EventCategories.from(past.getId(), category.getId())).block();
+
+        // when
+        eventPartitionService.maintain().block();
+
+        // then
+        assertThat(eventsRepository.isArchived(past.getId()).block()).isTrue();
+        assertThat(eventCategoriesRepository.findAll().collectList().block()).isEmpty();
+        webTestClient
+                .mutateWith(JWT)
+                .get()
+                .uri("/events/" + past.getId())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.GONE)
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertThat(error.getReason()).isEqualTo("Event archived with id: " + past.getId()));
+    }
+
+    private static String partition(LocalDate month) {
+        return "event_p" + month.format(PARTITION_MONTH);
+    }
+}
@@ -7,11 +7,13 @@ import com.whatstheplan.events.model.entities.EventCategories;
 import com.whatstheplan.events.model.request.EventRequest;
 import com.whatstheplan.events.model.response.ErrorResponse;
 import com.whatstheplan.events.model.response.EventResponse;
+import com.whatstheplan.events.repository.EventOccurrenceRepository;
 import com.whatstheplan.events.testconfig.BaseIntegrationTest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.MediaType;
@@ -23,6 +25,7 @@ import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
@@ -47,6 +50,9 @@ class EventsCreationControllerIntegrationTest extends BaseIntegrationTest {
     @MockitoBean
     private S3AsyncClient s3Client;
 
+    @Autowired
+    private EventOccurrenceRepository eventOccurrenceRepository;
+
     private static final ByteArrayResource IMAGE = generateImage("fake-image-content".getBytes(), "event-image.png");
 
     @ParameterizedTest
@@ -78,6 +84,12 @@ class EventsCreationControllerIntegrationTest extends BaseIntegrationTest {
                             .collectList().block();
                     assertEventEntity(request, IMAGE.getFilename(), events.get(0), categories);
 
+                    List<LocalDateTime> occurrences = eventOccurrenceRepository.findStartTimes(events.get(0).getId())
+                            .collectList().block();
+                    assertThat(occurrences).isNotEmpty();
+                    assertThat(occurrences)
+                            .allSatisfy(occurrence -> assertThat(occurrence).isAfterOrEqualTo(request.getDateTime()));
+
                     verify(s3Client, times(1))
                             .putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
                 });
@@ -282,6 +294,14 @@ class EventsCreationControllerIntegrationTest extends BaseIntegrationTest {
                         validImage,
                         List.of("At least one day must be specified.")
                 ),
+                // --- Unknown activity type ---
+                arguments(
+                        generateEventCreationRequestNotRecurrent().toBuilder()
+                                .activityTypes(List.of("Soccer", "Underwater Chess"))
+                                .build(),
+                        validImage,
+                        List.of("Invalid activity type.")
+                ),
                 // --- Recurrence until + count both set ---
                 arguments(
                         generateEventCreationRequestRecurrent().toBuilder()
@@ -3,13 +3,17 @@ package com.whatstheplan.events.integration;
 import com.whatstheplan.events.model.entities.Category;
 import com.whatstheplan.events.model.entities.Event;
 import com.whatstheplan.events.model.entities.EventCategories;
+import com.whatstheplan.events.model.request.EventBatchRequest;
 import com.whatstheplan.events.model.response.ErrorResponse;
+import com.whatstheplan.events.model.response.EventBatchResponse;
 import com.whatstheplan.events.model.response.EventResponse;
 import com.whatstheplan.events.testconfig.BaseIntegrationTest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 
 import java.util.List;
 import java.util.UUID;
@@ -69,6 +73,129 @@ class EventsRetrievalControllerIntegrationTest extends BaseIntegrationTest {
                 });
     }
 
+    @Test
+    void whenEventMatchesETag_thenShouldReturnNotModifiedWithoutBody() {
+        // given
+        Event event = generateEventEntity();
+        eventsRepository.insert(event).block();
+        String eTag = webTestClient
+                .mutateWith(JWT)
+                .get()
+                .uri("/events/" + event.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+                .returnResult(EventResponse.class)
+                .getResponseHeaders()
+                .getETag();
+
+        // when - then
+        webTestClient
+                .mutateWith(JWT)
+                .get()
+                .uri("/events/" + event.getId())
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void whenEventsAreRequestedByIds_thenShouldKeepRequestOrderAndReportMissing() {
+        // given
+        Event first = generateEventEntity();
+        Event second = generateEventEntity();
+        eventsRepository.insert(first).block();
+        eventsRepository.insert(second).block();
+        List<Category> categories = generateEventCategories();
+        categoryRepository.saveAll(categories).collectList().block();
+        eventCategoriesRepository.saveAll(
+                        categories.stream().map(c -> EventCategories.from(second.getId(), c.getId())).toList())
+                .collectList().block();
+        UUID missing = UUID.randomUUID();
+
+        // when - then
+        webTestClient
+                .mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/events")
+                        .queryParam("ids", second.getId(), missing, first.getId(), second.getId())
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventBatchResponse.class)
+                .consumeWith(response -> {
+                    EventBatchResponse body = response.getResponseBody();
+                    assertThat(body.getEvents())
+                            .extracting(EventResponse::getId)
+                            .containsExactly(second.getId(), first.getId());
+                    assertEventResponse(second, categories, body.getEvents().get(0));
+                    assertThat(body.getEvents().get(1).getActivityTypes()).isEmpty();
+                    assertThat(body.getMissing()).containsExactly(missing);
+                });
+    }
+
+    @Test
+    void whenEventsAreRequestedByIdsInBody_thenShouldReturnThem() {
+        // given
+        Event event = generateEventEntity();
+        eventsRepository.insert(event).block();
+
+        // when - then
+        webTestClient
+                .mutateWith(JWT)
+                .post()
+                .uri("/events/batch")
+                .bodyValue(EventBatchRequest.builder().ids(List.of(event.getId())).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventBatchResponse.class)
+                .consumeWith(response -> {
+                    EventBatchResponse body = response.getResponseBody();
+                    assertThat(body.getEvents()).extracting(EventResponse::getId).containsExactly(event.getId());
+                    assertThat(body.getMissing()).isEmpty();
+                });
+    }
+
+    @Test
+    void whenTooManyEventIdsAreRequested_thenShouldReturnBadRequest() {
+        // given
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(101).toList();
+
+        // when - then
+        webTestClient
+                .mutateWith(JWT)
+                .post()
+                .uri("/events/batch")
+                .bodyValue(EventBatchRequest.builder().ids(ids).build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .consumeWith(response -> assertThat(response.getResponseBody().getReason())
+                        .isEqualTo("At most 100 event ids can be requested at once."));
+    }
+
+    @Test
+    void whenBatchContainsNullEventId_thenShouldReturnBadRequest() {
+        // given
+        String body = "{\"ids\": [\"" + UUID.randomUUID() + "\", null]}";
+
+        // when - then
+        webTestClient
+                .mutateWith(JWT)
+                .post()
+                .uri("/events/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .consumeWith(response -> assertThat(response.getResponseBody().getReason())
+                        .isEqualTo("Event ids must not be null."));
+    }
+
     @Test
     void whenANewEventRetrievalRequestWithMissingRole_thenWillReturnUnauthorized() {
         // given - when - then
@@ -1,25 +1,39 @@
 package com.whatstheplan.events.integration;
 
+import com.whatstheplan.events.model.ActivityType;
 import com.whatstheplan.events.model.entities.Category;
 import com.whatstheplan.events.model.entities.Event;
 import com.whatstheplan.events.model.entities.EventCategories;
+import com.whatstheplan.events.model.response.ErrorResponse;
+import com.whatstheplan.events.model.response.EventPageResponse;
 import com.whatstheplan.events.model.response.EventResponse;
+import com.whatstheplan.events.model.response.FacetsResponse;
 import com.whatstheplan.events.repository.EventCategoriesRepository;
 import com.whatstheplan.events.repository.EventsRepository;
 import com.whatstheplan.events.testconfig.BaseIntegrationTest;
 import com.whatstheplan.events.testconfig.utils.DataMockUtils;
+import com.whatstheplan.events.utils.GeoHashUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -30,6 +44,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class EventsSearchControllerIntegrationTest extends BaseIntegrationTest {
 
+    private static final DateTimeFormatter RRULE_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
 
     @Autowired
     private WebTestClient webTestClient;
@@ -74,13 +90,79 @@ class EventsSearchControllerIntegrationTest extends BaseIntegrationTest {
                         .build())
                 .exchange()
                 .expectStatus().isOk()
-                .expectBodyList(EventResponse.class)
-                .value(responses -> {
+                .expectBody(EventPageResponse.class)
+                .value(page -> {
+                    List<EventResponse> responses = page.getEvents();
                     assertThat(responses).hasSize(expectedSize);
                     assertions.accept(responses);
                 });
     }
 
+    @Test
+    void whenSearchIsPaginated_thenShouldWalkAllPagesWithCursor() {
+        // given
+        List<Event> events = Stream.iterate(1, i -> i + 1)
+                .limit(5)
+                .map(i -> createEvent(e -> e.dateTime(TODAY.plusDays(i))))
+                .toList();
+        events.forEach(event -> eventsRepository.insert(event).block());
+
+        // when
+        EventPageResponse firstPage = searchPage(2, null);
+        EventPageResponse secondPage = searchPage(2, firstPage.getNext());
+        EventPageResponse lastPage = searchPage(2, secondPage.getNext());
+
+        // then
+        assertThat(firstPage.getNext()).isNotNull();
+        assertThat(secondPage.getNext()).isNotNull();
+        assertThat(lastPage.getNext()).isNull();
+        assertThat(Stream.of(firstPage, secondPage, lastPage)
+                .flatMap(page -> page.getEvents().stream())
+                .map(EventResponse::getId)
+                .toList())
+                .containsExactlyElementsOf(events.stream().map(Event::getId).toList());
+    }
+
+    @Test
+    void whenSearchIsStreamedAsNdjson_thenShouldEmitEachEventInOrder() {
+        // given
+        List<Event> events = Stream.iterate(1, i -> i + 1)
+                .limit(3)
+                .map(i -> createEvent(e -> e.dateTime(TODAY.plusDays(i))))
+                .toList();
+        events.forEach(event -> eventsRepository.insert(event).block());
+
+        // when
+        Flux<EventResponse> stream = webTestClient.mutateWith(JWT)
+                .get()
+                .uri("/events/search/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(EventResponse.class)
+                .getResponseBody();
+
+        // then
+        StepVerifier.create(stream.map(EventResponse::getId))
+                .expectNext(events.get(0).getId(), events.get(1).getId(), events.get(2).getId())
+                .verifyComplete();
+    }
+
+    @Test
+    void whenSearchCursorIsInvalid_thenShouldReturnBadRequest() {
+        // given - when - then
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/events/search")
+                        .queryParam("cursor", "not-a-cursor")
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertThat(error.getReason()).isEqualTo("Invalid search cursor."));
+    }
+
     @Test
     void whenANewEventRetrievalRequestWithMissingRole_thenWillReturnUnauthorized() {
         // given - when - then
@@ -361,6 +443,297 @@ class EventsSearchControllerIntegrationTest extends BaseIntegrationTest {
         );
     }
 
+    private EventPageResponse searchPage(int limit, String cursor) {
+        return webTestClient.mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/events/search")
+                        .queryParam("limit", limit)
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventPageResponse.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    void whenRecurringSeriesHasEnded_thenShouldNotBeReturned() {
+        // given
+        LocalDateTime seed = TODAY.minusDays(10);
+        Event finished = createEvent(e -> e
+                .dateTime(seed)
+                .recurrence("FREQ=DAILY;UNTIL=" + seed.plusDays(5).format(RRULE_DATE_TIME))
+                .seriesEnd(seed.plusDays(5)));
+        Event ongoing = createEvent(e -> e
+                .dateTime(seed)
+                .recurrence("FREQ=DAILY"));
+        eventsRepository.insert(finished).block();
+        eventsRepository.insert(ongoing).block();
+
+        // when - then
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri("/events/search")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventPageResponse.class)
+                .value(page -> assertThat(page.getEvents())
+                        .extracting(EventResponse::getId)
+                        .containsExactly(ongoing.getId()));
+    }
+
+    @Test
+    void whenRadiusSearchIsSortedByDistance_thenShouldReturnNearbyEventsClosestFirst() {
+        // given
+        Event sol = createEvent(e -> e.latitude(40.416775).longitude(-3.703790).dateTime(TODAY.plusDays(3)));
+        Event retiro = createEvent(e -> e.latitude(40.415260).longitude(-3.684416).dateTime(TODAY.plusDays(1)));
+        Event barcelona = createEvent(e -> e.latitude(41.385064).longitude(2.173404));
+        Event unlocated = createEvent(e -> {
+        });
+        Stream.of(sol, retiro, barcelona, unlocated)
+                .map(event -> {
+                    event.setGeohash(event.getLatitude() != null
+                            ? GeoHashUtils.encode(event.getLatitude(), event.getLongitude())
+                            : null);
+                    return event;
+                })
+                .forEach(event -> eventsRepository.insert(event).block());
+
+        // when - then
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/events/search")
+                        .queryParam("lat", 40.4168)
+                        .queryParam("lon", -3.7038)
+                        .queryParam("radiusKm", 5)
+                        .queryParam("sort", "DISTANCE")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventPageResponse.class)
+                .value(page -> {
+                    assertThat(page.getEvents())
+                            .extracting(EventResponse::getId)
+                            .containsExactly(sol.getId(), retiro.getId());
+                    assertThat(page.getEvents().get(0).getDistanceKm()).isLessThan(0.1);
+                    assertThat(page.getEvents().get(1).getDistanceKm()).isBetween(1.0, 2.0);
+                    assertThat(page.getNext()).isNull();
+                });
+    }
+
+    @Test
+    void whenRadiusSearchIsMissingCoordinates_thenShouldReturnBadRequest() {
+        // given - when - then
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/events/search")
+                        .queryParam("radiusKm", 5)
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertThat(error.getReason()).isEqualTo("Radius search requires lat, lon and radiusKm."));
+    }
+
+    @Test
+    void whenTextSearchIsSortedByRelevance_thenTitleMatchesShouldRankFirst() {
+        // given
+        Event inDescription = createEvent(e -> e
+                .title("Morning stretch")
+                .description("Gentle yoga session in the park")
+                .dateTime(TODAY.plusDays(1)));
+        Event inTitle = createEvent(e -> e
+                .title("Sunset yoga")
+                .description("Bring your own mat")
+                .dateTime(TODAY.plusDays(2)));
+        Event unrelated = createEvent(e -> e
+                .title("Football match")
+                .description("Five a side"));
+        Stream.of(inDescription, inTitle, unrelated).forEach(event -> eventsRepository.insert(event).block());
+
+        // when - then
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/events/search")
+                        .queryParam("q", "yoga")
+                        .queryParam("sort", "RELEVANCE")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventPageResponse.class)
+                .value(page -> {
+                    assertThat(page.getEvents())
+                            .extracting(EventResponse::getId)
+                            .containsExactly(inTitle.getId(), inDescription.getId());
+                    assertThat(page.getEvents().get(0).getRelevance())
+                            .isGreaterThan(page.getEvents().get(1).getRelevance());
+                });
+    }
+
+    @Test
+    void whenTextSearchIsCombinedWithFilters_thenShouldApplyBoth() {
+        // given
+        Event paris = createEvent(e -> e.title("Jazz night").location("Paris"));
+        Event london = createEvent(e -> e.title("Jazz night").location("London"));
+        Stream.of(paris, london).forEach(event -> eventsRepository.insert(event).block());
+
+        // when - then
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/events/search")
+                        .queryParam("q", "jazz")
+                        .queryParam("location", "Paris")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventPageResponse.class)
+                .value(page -> assertThat(page.getEvents())
+                        .extracting(EventResponse::getId)
+                        .containsExactly(paris.getId()));
+    }
+
+    @Test
+    void whenSummaryViewIsRequested_thenShouldOmitDescription() {
+        // given
+        Event event = createEvent(e -> e.description("A long description nobody reads on list pages"));
+        eventsRepository.insert(event).block();
+
+        // when - then
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/events/search")
+                        .queryParam("view", "SUMMARY")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.events[0].id").isEqualTo(event.getId().toString())
+                .jsonPath("$.events[0].title").isEqualTo(event.getTitle())
+                .jsonPath("$.events[0].description").doesNotExist();
+    }
+
+    @Test
+    void whenFullViewEventHasNoDescription_thenShouldStillReportTheField() {
+        // given
+        Event event = createEvent(e -> e.description(null));
+        eventsRepository.insert(event).block();
+
+        // when - then
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri("/events/search")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.events[0]").value(json ->
+                        assertThat((Map<?, ?>) json).containsEntry("description", null));
+    }
+
+    @Test
+    void whenSearchMatchesETag_thenShouldReturnNotModifiedUntilAnEventChanges() {
+        // given
+        Event event = createEvent(e -> e.dateTime(TODAY.plusDays(1)));
+        eventsRepository.insert(event).block();
+        String eTag = webTestClient.mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> searchWindow(uriBuilder).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectHeader().doesNotExist(HttpHeaders.LAST_MODIFIED)
+                .returnResult(EventPageResponse.class)
+                .getResponseHeaders()
+                .getETag();
+
+        // when - then
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> searchWindow(uriBuilder).build())
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody().isEmpty();
+
+        event.setTitle("Renamed Event");
+        event.setLastModifiedDate(Instant.now().plusSeconds(1));
+        eventsRepository.update(event).block();
+        // The repository write bypasses the service, which is what invalidates cached pages.
+        searchResultCache.invalidateAll();
+
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> searchWindow(uriBuilder).build())
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, value -> assertThat(value).isNotEqualTo(eTag));
+    }
+
+    @Test
+    void whenFacetsAreRequested_thenShouldCountMatchingEventsPerBucket() {
+        // given
+        LocalDateTime seed = TODAY.minusDays(10);
+        Event small = createEvent(e -> e.capacity(5).activityMask(ActivityType.mask(List.of("Soccer"))));
+        Event medium = createEvent(e -> e
+                .capacity(30)
+                .duration(Duration.ofHours(3))
+                .activityMask(ActivityType.mask(List.of("Soccer", "Tennis"))));
+        Event ongoing = createEvent(e -> e
+                .capacity(200)
+                .dateTime(seed)
+                .recurrence("FREQ=DAILY")
+                .activityMask(ActivityType.mask(List.of("Tennis"))));
+        Event finished = createEvent(e -> e
+                .dateTime(seed)
+                .recurrence("FREQ=DAILY;UNTIL=" + seed.plusDays(5).format(RRULE_DATE_TIME))
+                .seriesEnd(seed.plusDays(5))
+                .activityMask(ActivityType.mask(List.of("Tennis"))));
+        Stream.of(small, medium, ongoing, finished).forEach(event -> eventsRepository.insert(event).block());
+
+        // when - then
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri("/events/search/facets")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(FacetsResponse.class)
+                .value(facets -> {
+                    assertThat(facets.getTotal()).isEqualTo(3);
+                    assertThat(facets.getActivityTypes())
+                            .containsExactly(Map.entry("Soccer", 2L), Map.entry("Tennis", 2L));
+                    assertThat(facets.getCapacity())
+                            .containsEntry("1-10", 1L)
+                            .containsEntry("11-25", 0L)
+                            .containsEntry("26-50", 1L)
+                            .containsEntry("100+", 1L);
+                    assertThat(facets.getDuration())
+                            .containsEntry("0-1h", 2L)
+                            .containsEntry("2-4h", 1L);
+                });
+    }
+
+    @Test
+    void whenFacetFilterIsInvalid_thenShouldReturnBadRequest() {
+        // given - when - then
+        webTestClient.mutateWith(JWT)
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/events/search/facets")
+                        .queryParam("activityTypes", "Quidditch")
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertThat(error.getReason()).isEqualTo("Invalid activity type: Quidditch"));
+    }
+
+    private static UriBuilder searchWindow(UriBuilder uriBuilder) {
+        return uriBuilder.path("/events/search")
+                .queryParam("dateTimeFrom", TODAY.format(ISO_DATE_TIME))
+                .queryParam("dateTimeTo", TODAY.plusDays(7).format(ISO_DATE_TIME));
+    }
+
     private static Event createEvent(Consumer<Event.EventBuilder> customizer) {
         Event.EventBuilder builder = Event.builder()
                 .id(UUID.randomUUID())
@@ -0,0 +1,40 @@
+package com.whatstheplan.events.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ActivityTypeTest {
+
+    @Test
+    void whenNamesAreMasked_thenShouldDecodeInDeclarationOrder() {
+        // when
+        long mask = ActivityType.mask(List.of("Painting", "Soccer", "Food & Dining"));
+
+        // then
+        assertThat(mask).isEqualTo(ActivityType.SOCCER.bit() | ActivityType.FOOD.bit() | ActivityType.PAINTING.bit());
+        assertThat(ActivityType.namesFromMask(mask)).containsExactly("Soccer", "Food & Dining", "Painting");
+    }
+
+    @Test
+    void whenAllTypesAreMasked_thenShouldFitInASignedLong() {
+        // when
+        long mask = ActivityType.mask(Arrays.stream(ActivityType.values()).map(ActivityType::getName).toList());
+
+        // then
+        assertThat(mask).isPositive();
+        assertThat(ActivityType.namesFromMask(mask)).hasSize(ActivityType.values().length);
+    }
+
+    @Test
+    void whenNameIsUnknown_thenShouldBeRejected() {
+        assertThat(ActivityType.isValid("Underwater Chess")).isFalse();
+        assertThatThrownBy(() -> ActivityType.mask(List.of("Underwater Chess")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(ActivityType.mask(null)).isZero();
+    }
+}
@@ -0,0 +1,114 @@
+package com.whatstheplan.events.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.proxy.core.Bindings;
+import io.r2dbc.proxy.core.ConnectionInfo;
+import io.r2dbc.proxy.core.ExecutionType;
+import io.r2dbc.proxy.core.MethodExecutionInfo;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.spi.Connection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class PreparedStatementCacheListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PreparedStatementCacheListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new PreparedStatementCacheListener(meterRegistry, 2);
+    }
+
+    @Test
+    void whenStatementRunsAgainOnSameConnection_thenShouldCountHit() {
+        // when
+        listener.beforeQuery(execution("c1", "/* searchEvents */ SELECT 1", true));
+        listener.beforeQuery(execution("c1", "/* searchEvents */ SELECT 1", true));
+        listener.beforeQuery(execution("c2", "/* searchEvents */ SELECT 1", true));
+
+        // then
+        assertThat(count("searchEvents", "hit")).isEqualTo(1);
+        assertThat(count("searchEvents", "miss")).isEqualTo(2);
+    }
+
+    @Test
+    void whenCacheIsFull_thenShouldEvictLeastRecentlyUsedStatement() {
+        // given
+        listener.beforeQuery(execution("c1", "/* a */ SELECT 1", true));
+        listener.beforeQuery(execution("c1", "/* b */ SELECT 2", true));
+        listener.beforeQuery(execution("c1", "/* a */ SELECT 1", true));
+
+        // when
+        listener.beforeQuery(execution("c1", "/* c */ SELECT 3", true));
+        listener.beforeQuery(execution("c1", "/* a */ SELECT 1", true));
+        listener.beforeQuery(execution("c1", "/* b */ SELECT 2", true));
+
+        // then
+        assertThat(count("a", "hit")).isEqualTo(2);
+        assertThat(count("b", "miss")).isEqualTo(2);
+    }
+
+    @Test
+    void whenStatementHasNoBindings_thenShouldNotCountIt() {
+        // when
+        listener.beforeQuery(execution("c1", "/* a */ SELECT 1", false));
+
+        // then
+        assertThat(meterRegistry.find(PreparedStatementCacheListener.COUNTER).counters()).isEmpty();
+    }
+
+    @Test
+    void whenConnectionCloses_thenShouldForgetItsStatements() throws NoSuchMethodException {
+        // given
+        listener.beforeQuery(execution("c1", "/* a */ SELECT 1", true));
+        ConnectionInfo connection = connection("c1");
+        Connection target = mock(Connection.class);
+        MethodExecutionInfo close = mock(MethodExecutionInfo.class);
+        given(close.getTarget()).willReturn(target);
+        given(close.getMethod()).willReturn(Connection.class.getMethod("close"));
+        given(close.getConnectionInfo()).willReturn(connection);
+
+        // when
+        listener.afterMethod(close);
+        listener.beforeQuery(execution("c1", "/* a */ SELECT 1", true));
+
+        // then
+        assertThat(listener.connections()).isEqualTo(1);
+        assertThat(count("a", "miss")).isEqualTo(2);
+    }
+
+    private double count(String origin, String result) {
+        return meterRegistry.get(PreparedStatementCacheListener.COUNTER)
+                .tags("origin", origin, "result", result)
+                .counter()
+                .count();
+    }
+
+    private static QueryExecutionInfo execution(String connectionId, String sql, boolean bound) {
+        List<Bindings> bindings = bound ? List.of(mock(Bindings.class)) : List.of();
+        QueryInfo query = mock(QueryInfo.class);
+        given(query.getQuery()).willReturn(sql);
+        given(query.getBindingsList()).willReturn(bindings);
+        ConnectionInfo connection = connection(connectionId);
+        QueryExecutionInfo execInfo = mock(QueryExecutionInfo.class);
+        given(execInfo.getConnectionInfo()).willReturn(connection);
+        given(execInfo.getType()).willReturn(ExecutionType.STATEMENT);
+        given(execInfo.getQueries()).willReturn(List.of(query));
+        return execInfo;
+    }
+
+    private static ConnectionInfo connection(String connectionId) {
+        ConnectionInfo connection = mock(ConnectionInfo.class);
+        given(connection.getConnectionId()).willReturn(connectionId);
+        return connection;
+    }
+}
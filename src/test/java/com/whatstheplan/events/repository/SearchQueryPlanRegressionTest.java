@@ -0,0 +1,328 @@
+package com.whatstheplan.events.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.whatstheplan.events.model.ActivityType;
+import com.whatstheplan.events.model.SearchCursor;
+import com.whatstheplan.events.model.SearchSort;
+import com.whatstheplan.events.model.SearchView;
+import com.whatstheplan.events.model.request.EventFilterRequest;
+import com.whatstheplan.events.repository.CustomEventRepositoryImpl.SearchStatement;
+import com.whatstheplan.events.repository.SearchStatementShapes.Kind;
+import com.whatstheplan.events.testconfig.BaseIntegrationTest;
+import com.whatstheplan.events.utils.GeoHashUtils;
+import com.whatstheplan.events.utils.RecurrenceRuleCache;
+import io.r2dbc.postgresql.codec.Json;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.whatstheplan.events.testconfig.utils.DataMockUtils.TODAY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Seeds a generated dataset and runs every statement shape the search repository emits through
+// EXPLAIN (ANALYZE, BUFFERS). Fails when a plan sequentially scans a large relation or reads more buffers than the
+// stored baseline allows. Run with ./gradlew queryPlans; record a new baseline with -PupdateQueryPlanBaseline.
+@Tag("query-plan")
+class SearchQueryPlanRegressionTest extends BaseIntegrationTest {
+
+    private static final int EVENTS = Integer.getInteger("queryPlans.events", 1_000_000);
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("queryPlans.updateBaseline");
+    private static final String BASELINE_RESOURCE = "/query-plans/search-baseline.json";
+    private static final Path BASELINE_SOURCE = Path.of("src/test/resources/query-plans/search-baseline.json");
+
+    private static final double[][] CITIES = {
+            {40.4168, -3.7038}, {48.8566, 2.3522}, {51.5074, -0.1278}, {52.5200, 13.4050},
+            {41.3874, 2.1686}, {45.4642, 9.1900}, {38.7223, -9.1393}, {50.8503, 4.3517}};
+    private static final String[] LOCATIONS = {
+            "Madrid", "Paris", "London", "Berlin", "Barcelona", "Milan", "Lisbon", "Brussels"};
+
+    private static final String SEED_EVENTS = """
+            INSERT INTO event (id, title, description, date_time, duration, location, latitude, longitude, geohash,
+                               capacity, organizer_id, recurrence, series_end, activity_mask, occurrences_until,
+                               active_until)
+            SELECT s.id,
+                   'Event ' || s.i,
+                   'Generated ' || (ARRAY ['yoga', 'football', 'chess', 'jazz', 'hiking'])[1 + s.i % 5] || ' event ' || s.i,
+                   s.date_time,
+                   make_interval(mins => 30 * (1 + s.i % 8)),
+                   (CAST(:locations AS TEXT[]))[1 + s.i % 8],
+                   (CAST(:latitudes AS FLOAT8[]))[1 + s.i % 8],
+                   (CAST(:longitudes AS FLOAT8[]))[1 + s.i % 8],
+                   (CAST(:geohashes AS TEXT[]))[1 + s.i % 8],
+                   1 + s.i % 100,
+                   :organizerId,
+                   s.recurrence,
+                   s.series_end,
+                   (CAST(1 AS BIGINT) << (s.i % :activityTypes)) | (CAST(1 AS BIGINT) << ((s.i / 7) % :activityTypes)),
+                   CASE
+                       WHEN s.recurrence IS NULL OR s.series_end IS NOT NULL THEN 'infinity'
+                       ELSE now() + INTERVAL '180 days' END,
+                   event_active_until(s.recurrence, s.date_time, s.series_end)
+            FROM (SELECT r.*,
+                         CASE
+                             WHEN r.recurrence = 'FREQ=WEEKLY;COUNT=13'
+                                 THEN r.date_time + INTERVAL '12 weeks' END AS series_end
+                  FROM (SELECT g.i,
+                               gen_random_uuid()                                 AS id,
+                               now() + (random() * 730 - 365) * INTERVAL '1 day' AS date_time,
+                               CASE
+                                   WHEN g.i % 40 = 0 THEN 'FREQ=WEEKLY;COUNT=13'
+                                   WHEN g.i % 20 = 0 THEN 'FREQ=WEEKLY' END      AS recurrence
+                        FROM generate_series(1, :events) AS g(i)) r) s
+            """;
+
+    private static final String SEED_ID_LOOKUP = """
+            INSERT INTO event_id_lookup (id, active_until)
+            SELECT id, active_until FROM event
+            """;
+
+    private static final String SEED_OCCURRENCES = """
+            INSERT INTO event_occurrence (event_id, start_time, end_time)
+            SELECT e.id, s, s + e.duration
+            FROM event e,
+                 generate_series(e.date_time,
+                                 CASE
+                                     WHEN e.recurrence IS NULL THEN e.date_time
+                                     ELSE LEAST(COALESCE(e.series_end, 'infinity'), now() + INTERVAL '180 days') END,
+                                 INTERVAL '7 days') AS s
+            """;
+
+    private static final String SEED_CATEGORIES = """
+            INSERT INTO category (id, name)
+            SELECT gen_random_uuid(), t.name FROM unnest(CAST(:names AS TEXT[])) AS t(name)
+            """;
+
+    private static final String SEED_EVENT_CATEGORIES = """
+            INSERT INTO event_categories (id, event_id, category_id)
+            SELECT gen_random_uuid(), e.id, c.id
+            FROM event e
+                     JOIN unnest(CAST(:names AS TEXT[])) WITH ORDINALITY AS t(name, ord)
+                          ON (e.activity_mask & (CAST(1 AS BIGINT) << CAST(t.ord - 1 AS INTEGER))) <> 0
+                     JOIN category c ON c.name = t.name
+            """;
+
+    private static final Logger log = LoggerFactory.getLogger(SearchQueryPlanRegressionTest.class);
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private RecurrenceRuleCache recurrenceRuleCache;
+
+    @Autowired
+    private SearchStatementShapes searchStatementShapes;
+
+    @Autowired
+    private EventPartitionRepository eventPartitionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        LocalDate month = TODAY.toLocalDate().withDayOfMonth(1);
+        Flux.range(-13, 27)
+                .concatMap(i -> eventPartitionRepository.createPartition(month.plusMonths(i)))
+                .blockLast();
+
+        String[] names = Arrays.stream(ActivityType.values()).map(ActivityType::getName).toArray(String[]::new);
+        String[] geohashes = Arrays.stream(CITIES).map(c -> GeoHashUtils.encode(c[0], c[1])).toArray(String[]::new);
+        Double[] latitudes = Arrays.stream(CITIES).map(c -> c[0]).toArray(Double[]::new);
+        Double[] longitudes = Arrays.stream(CITIES).map(c -> c[1]).toArray(Double[]::new);
+
+        long start = System.nanoTime();
+        // Triggers are disabled so seeding neither notifies nor checks event ids row by row; the id lookup they would
+        // maintain is filled in one statement instead.
+        databaseClient.sql("SET LOCAL session_replication_role = replica").then()
+                .then(databaseClient.sql("SELECT setseed(0.42)").then())
+                .then(databaseClient.sql(SEED_EVENTS)
+                        .bind("events", EVENTS)
+                        .bind("locations", LOCATIONS)
+                        .bind("latitudes", latitudes)
+                        .bind("longitudes", longitudes)
+                        .bind("geohashes", geohashes)
+                        .bind("organizerId", USER_ID)
+                        .bind("activityTypes", names.length)
+                        .then())
+                .then(databaseClient.sql(SEED_ID_LOOKUP).then())
+                .then(databaseClient.sql(SEED_OCCURRENCES).then())
+                .then(databaseClient.sql(SEED_CATEGORIES).bind("names", names).then())
+                .then(databaseClient.sql(SEED_EVENT_CATEGORIES).bind("names", names).then())
+                .as(transactionalOperator::transactional)
+                .then(databaseClient.sql("ANALYZE event, event_id_lookup, event_occurrence, event_categories, category").then())
+                .block();
+        log.info("Seeded {} events in {} s", EVENTS, Duration.ofNanos(System.nanoTime() - start).toSeconds());
+    }
+
+    @Test
+    void searchStatementsShouldUseIndexesAndStayWithinBufferBaseline() throws IOException {
+        JsonNode baseline = readBaseline();
+        double tolerance = baseline.path("tolerance").asDouble(0.25);
+        long seqScanRowLimit = baseline.path("seqScanRowLimit").asLong(10_000);
+        JsonNode expectedBuffers = baseline.path("buffers");
+
+        Map<String, Long> buffers = new TreeMap<>();
+        List<String> failures = new ArrayList<>();
+        statements().forEach((key, statement) -> {
+            JsonNode plan = explain(statement);
+            long readBuffers = plan.path("Shared Hit Blocks").asLong() + plan.path("Shared Read Blocks").asLong();
+            buffers.put(key, readBuffers);
+            log.info("{}: {} buffers, {} ms", key, readBuffers, plan.path("Actual Total Time").asDouble());
+
+            sequentialScans(plan, seqScanRowLimit).forEach(scan -> failures.add(key + ": " + scan));
+            JsonNode expected = expectedBuffers.get(key);
+            if (expected == null) {
+                log.warn("{}: no buffer baseline recorded", key);
+            } else if (readBuffers > expected.asLong() * (1 + tolerance)) {
+                failures.add(key + ": read " + readBuffers + " buffers, baseline " + expected.asLong());
+            }
+        });
+
+        if (UPDATE_BASELINE) {
+            ObjectNode updated = objectMapper.createObjectNode()
+                    .put("events", EVENTS)
+                    .put("tolerance", tolerance)
+                    .put("seqScanRowLimit", seqScanRowLimit);
+            updated.set("buffers", objectMapper.valueToTree(buffers));
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(BASELINE_SOURCE.toFile(), updated);
+            log.info("Recorded query plan baseline in {}", BASELINE_SOURCE);
+        }
+
+        assertThat(failures).isEmpty();
+    }
+
+    private Map<String, SearchStatement> statements() {
+        CustomEventRepositoryImpl repository =
+                new CustomEventRepositoryImpl(databaseClient, recurrenceRuleCache, searchStatementShapes);
+        String cursor = new SearchCursor(TODAY.plusDays(3), UUID.randomUUID()).encode();
+
+        Map<String, SearchStatement> statements = new LinkedHashMap<>();
+        for (boolean filtered : new boolean[]{false, true}) {
+            for (boolean geo : new boolean[]{false, true}) {
+                for (boolean text : new boolean[]{false, true}) {
+                    Consumer<EventFilterRequest.EventFilterRequestBuilder> base = f -> {
+                        f.dateTimeFrom(TODAY).dateTimeTo(TODAY.plusDays(14)).limit(50);
+                        if (filtered) {
+                            f.location("Madrid").durationTo(Duration.ofHours(2)).capacityMin(10).capacityMax(80)
+                                    .activityTypes(List.of("Soccer", "Tennis"));
+                        }
+                        if (geo) {
+                            f.lat(CITIES[0][0]).lon(CITIES[0][1]).radiusKm(10.0);
+                        }
+                        if (text) {
+                            f.q("yoga");
+                        }
+                    };
+                    String prefix = (filtered ? "filtered" : "open") + (geo ? "-geo" : "") + (text ? "-text" : "");
+
+                    for (SearchView view : SearchView.values()) {
+                        String suffix = "-" + view.name().toLowerCase();
+                        statements.put("search-" + prefix + "-date" + suffix,
+                                repository.statementFor(filter(base, f -> f.view(view))));
+                        statements.put("search-" + prefix + "-date-cursor" + suffix,
+                                repository.statementFor(filter(base, f -> f.view(view).cursor(cursor))));
+                        if (geo) {
+                            statements.put("search-" + prefix + "-distance" + suffix, repository.statementFor(
+                                    filter(base, f -> f.view(view).sort(SearchSort.DISTANCE))));
+                        }
+                        if (text) {
+                            statements.put("search-" + prefix + "-relevance" + suffix, repository.statementFor(
+                                    filter(base, f -> f.view(view).sort(SearchSort.RELEVANCE))));
+                        }
+                    }
+                    statements.put("search-validator-" + prefix + "-date",
+                            repository.statementFor(Kind.SEARCH_VALIDATOR, filter(base, f -> {
+                            })));
+                    statements.put("search-validator-" + prefix + "-date-cursor",
+                            repository.statementFor(Kind.SEARCH_VALIDATOR, filter(base, f -> f.cursor(cursor))));
+                    statements.put("facets-" + prefix, repository.filterStatement(Kind.FACETS, filter(base, f -> {
+                    })));
+                    statements.put("facet-candidates-" + prefix,
+                            repository.filterStatement(Kind.FACET_CANDIDATES, filter(base, f -> {
+                            })));
+                }
+            }
+        }
+
+        List<UUID> ids = databaseClient.sql("SELECT id FROM event WHERE active_until >= now() LIMIT 50")
+                .map((row, rowMetadata) -> row.get("id", UUID.class))
+                .all()
+                .collectList()
+                .block();
+        for (SearchView view : SearchView.values()) {
+            statements.put("by-ids-" + view.name().toLowerCase(), repository.byIdsStatement(ids, view));
+        }
+        statements.put("by-id", repository.byIdStatement(ids.get(0)));
+        statements.put("events-by-ids", repository.eventsByIdsStatement(ids));
+        return statements;
+    }
+
+    // Plans are forced generic, which is what the driver ends up executing for a cached prepared statement, so a
+    // predicate that only prunes with known parameter values shows up here as a sequential scan.
+    private JsonNode explain(SearchStatement statement) {
+        String plan = databaseClient.sql("SET LOCAL plan_cache_mode = force_generic_plan").then()
+                .then(databaseClient.sql("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + statement.sql())
+                        .bindValues(statement.params())
+                        .map((row, rowMetadata) -> row.get(0, Json.class).asString())
+                        .one())
+                .as(transactionalOperator::transactional)
+                .block();
+        try {
+            return objectMapper.readTree(plan).get(0).get("Plan");
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unreadable plan: " + plan, ex);
+        }
+    }
+
+    private static List<String> sequentialScans(JsonNode node, long rowLimit) {
+        List<String> scans = new ArrayList<>();
+        if (node.path("Node Type").asText().endsWith("Seq Scan")) {
+            long rows = (node.path("Actual Rows").asLong() + node.path("Rows Removed by Filter").asLong())
+                    * Math.max(1, node.path("Actual Loops").asLong());
+            if (rows > rowLimit) {
+                scans.add("sequential scan of " + node.path("Relation Name").asText() + " read " + rows + " rows");
+            }
+        }
+        node.path("Plans").forEach(child -> scans.addAll(sequentialScans(child, rowLimit)));
+        return scans;
+    }
+
+    private JsonNode readBaseline() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream(BASELINE_RESOURCE)) {
+            return in != null ? objectMapper.readTree(in) : objectMapper.createObjectNode();
+        }
+    }
+
+    private static EventFilterRequest filter(Consumer<EventFilterRequest.EventFilterRequestBuilder> base,
+                                             Consumer<EventFilterRequest.EventFilterRequestBuilder> customizer) {
+        EventFilterRequest.EventFilterRequestBuilder builder = EventFilterRequest.builder();
+        base.accept(builder);
+        customizer.accept(builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.whatstheplan.events.repository;
+
+import com.whatstheplan.events.model.entities.Event;
+import com.whatstheplan.events.model.request.EventFilterRequest;
+import com.whatstheplan.events.repository.CustomEventRepositoryImpl.SearchStatement;
+import com.whatstheplan.events.testconfig.BaseIntegrationTest;
+import com.whatstheplan.events.utils.RecurrenceRuleCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.whatstheplan.events.testconfig.utils.DataMockUtils.TODAY;
+
+// Unique statement text forces a parse and plan per execution, which is what string-built queries cost once the
+// filter combinations outgrow the driver statement cache. Run with ./gradlew benchmark.
+@Tag("benchmark")
+class SearchStatementShapesBenchmark extends BaseIntegrationTest {
+
+    private static final int EVENTS = 2_000;
+    private static final int QUERIES = 500;
+    private static final List<String> LOCATIONS = List.of("Madrid", "Paris", "London", "Berlin");
+
+    private static final Logger log = LoggerFactory.getLogger(SearchStatementShapesBenchmark.class);
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private RecurrenceRuleCache recurrenceRuleCache;
+
+    @Autowired
+    private SearchStatementShapes searchStatementShapes;
+
+    @Test
+    void compareFixedShapesWithUniqueStatementText() {
+        Random random = new Random(7);
+        Flux.range(0, EVENTS)
+                .map(i -> Event.builder()
+                        .id(UUID.randomUUID())
+                        .title("Event " + i)
+                        .description("Benchmark event " + i)
+                        .dateTime(TODAY.plusHours(random.nextInt(24 * 60)))
+                        .duration(Duration.ofMinutes(30L * (1 + random.nextInt(8))))
+                        .location(LOCATIONS.get(random.nextInt(LOCATIONS.size())))
+                        .capacity(1 + random.nextInt(100))
+                        .organizerId(USER_ID)
+                        .isNew(true)
+                        .build())
+                .concatMap(eventsRepository::insert)
+                .blockLast();
+
+        CustomEventRepositoryImpl repository =
+                new CustomEventRepositoryImpl(databaseClient, recurrenceRuleCache, searchStatementShapes);
+        List<SearchStatement> statements = IntStream.range(0, QUERIES)
+                .mapToObj(i -> repository.statementFor(randomFilter(random)))
+                .toList();
+
+        run(repository, statements, Function.identity());
+        long shapes = run(repository, statements, Function.identity());
+        long unique = run(repository, statements, sql -> "/* " + UUID.randomUUID() + " */ " + sql);
+
+        log.info("Fixed shapes: {} us/query, unique statement text: {} us/query ({} queries)",
+                shapes / QUERIES / 1_000, unique / QUERIES / 1_000, QUERIES);
+    }
+
+    private long run(CustomEventRepositoryImpl repository, List<SearchStatement> statements,
+                     Function<String, String> sqlRewrite) {
+        long start = System.nanoTime();
+        Flux.fromIterable(statements)
+                .concatMap(statement -> repository.execute(new SearchStatement(
+                        sqlRewrite.apply(statement.sql()), statement.params(), statement.shape())))
+                .blockLast();
+        return System.nanoTime() - start;
+    }
+
+    private static EventFilterRequest randomFilter(Random random) {
+        EventFilterRequest.EventFilterRequestBuilder builder = EventFilterRequest.builder()
+                .dateTimeFrom(TODAY)
+                .dateTimeTo(TODAY.plusDays(7 + random.nextInt(50)))
+                .limit(50);
+        if (random.nextBoolean()) {
+            builder.location(LOCATIONS.get(random.nextInt(LOCATIONS.size())));
+        }
+        if (random.nextBoolean()) {
+            builder.durationFrom(Duration.ofMinutes(30L * random.nextInt(4)));
+        }
+        if (random.nextBoolean()) {
+            builder.durationTo(Duration.ofHours(2 + random.nextInt(3)));
+        }
+        if (random.nextBoolean()) {
+            builder.capacityMin(random.nextInt(50));
+        }
+        if (random.nextBoolean()) {
+            builder.capacityMax(50 + random.nextInt(50));
+        }
+        if (random.nextInt(4) == 0) {
+            builder.q("event");
+        }
+        return builder.build();
+    }
+}
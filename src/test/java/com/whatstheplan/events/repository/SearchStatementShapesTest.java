@@ -0,0 +1,224 @@
+package com.whatstheplan.events.repository;
+
+import com.whatstheplan.events.config.SearchProperties;
+import com.whatstheplan.events.model.SearchSort;
+import com.whatstheplan.events.model.SearchView;
+import com.whatstheplan.events.repository.SearchStatementShapes.Filter;
+import com.whatstheplan.events.repository.SearchStatementShapes.Kind;
+import com.whatstheplan.events.repository.SearchStatementShapes.Shape;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchStatementShapesTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void whenSameShapeIsRequested_thenShouldReuseStatementText() {
+        // given
+        SearchStatementShapes shapes = new SearchStatementShapes(meterRegistry);
+        Shape shape = new Shape(Kind.SEARCH, false, false, false, SearchSort.DATE, SearchView.FULL);
+
+        // when
+        String first = shapes.sql(shape);
+        String second = shapes.sql(new Shape(Kind.SEARCH, false, false, false, SearchSort.DATE, SearchView.FULL));
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(first)
+                .contains("LIMIT :limit")
+                .doesNotContain(":cursorId", ":q", ":radiusKm");
+        assertThat(meterRegistry.get("events.search.statement.shapes").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void whenShapeHasFilters_thenShouldRenderOnlyTheirPredicates() {
+        // when
+        String sql = SearchStatementShapes.render(new Shape(Kind.SEARCH, false, false, false, SearchSort.DATE,
+                SearchView.FULL, EnumSet.of(Filter.LOCATION)));
+
+        // then
+        assertThat(sql)
+                .contains("AND e.location = :location")
+                .doesNotContain(":activityMask", "IS NULL OR e.");
+    }
+
+    @Test
+    void whenShapeHasNoRangeFilters_thenShouldStillRenderSentinelBoundRanges() {
+        // when
+        String sql = SearchStatementShapes.render(new Shape(Kind.SEARCH, false, false, false, SearchSort.DATE,
+                SearchView.FULL));
+
+        // then
+        assertThat(sql)
+                .contains("AND COALESCE(e.duration, :durationIfNull) BETWEEN :durationFrom AND :durationTo")
+                .contains("AND COALESCE(e.capacity, :capacityIfNull) BETWEEN :capacityMin AND :capacityMax");
+    }
+
+    @Test
+    void whenEveryProducibleShapeIsRendered_thenShouldFitInStatementCache() {
+        // given
+        List<Shape> shapes = new ArrayList<>();
+        for (Set<Filter> filters : filterCombinations()) {
+            for (boolean geo : new boolean[]{false, true}) {
+                for (boolean text : new boolean[]{false, true}) {
+                    shapes.add(new Shape(Kind.SEARCH_VALIDATOR, geo, text, false, SearchSort.DATE, SearchView.FULL,
+                            filters));
+                    shapes.add(new Shape(Kind.SEARCH_VALIDATOR, geo, text, true, SearchSort.DATE, SearchView.FULL,
+                            filters));
+                    if (geo) {
+                        shapes.add(new Shape(Kind.SEARCH_VALIDATOR, geo, text, false, SearchSort.DISTANCE,
+                                SearchView.FULL, filters));
+                    }
+                    if (text) {
+                        shapes.add(new Shape(Kind.SEARCH_VALIDATOR, geo, text, false, SearchSort.RELEVANCE,
+                                SearchView.FULL, filters));
+                    }
+                    for (SearchView view : SearchView.values()) {
+                        shapes.add(new Shape(Kind.SEARCH, geo, text, false, SearchSort.DATE, view, filters));
+                        shapes.add(new Shape(Kind.SEARCH, geo, text, true, SearchSort.DATE, view, filters));
+                        if (geo) {
+                            shapes.add(new Shape(Kind.SEARCH, geo, text, false, SearchSort.DISTANCE, view, filters));
+                        }
+                        if (text) {
+                            shapes.add(new Shape(Kind.SEARCH, geo, text, false, SearchSort.RELEVANCE, view, filters));
+                        }
+                    }
+                    shapes.add(new Shape(Kind.FACETS, geo, text, false, SearchSort.DATE, SearchView.FULL, filters));
+                    shapes.add(new Shape(Kind.FACET_CANDIDATES, geo, text, false, SearchSort.DATE, SearchView.FULL,
+                            filters));
+                }
+            }
+        }
+        for (SearchView view : SearchView.values()) {
+            shapes.add(new Shape(Kind.BY_IDS, false, false, false, SearchSort.DATE, view));
+        }
+        shapes.add(new Shape(Kind.BY_ID, false, false, false, SearchSort.DATE, SearchView.FULL));
+        shapes.add(new Shape(Kind.EVENTS_BY_IDS, false, false, false, SearchSort.DATE, SearchView.FULL));
+
+        // when
+        Set<String> statements = new HashSet<>();
+        shapes.forEach(shape -> statements.add(SearchStatementShapes.render(shape)));
+
+        // then
+        assertThat(statements)
+                .hasSize(shapes.size())
+                .hasSizeLessThanOrEqualTo(new SearchProperties().getStatementCacheSize());
+    }
+
+    @Test
+    void whenShapesDifferOnlyInFilters_thenShouldRenderSeparateStatements() {
+        // given
+        SearchStatementShapes shapes = new SearchStatementShapes(meterRegistry);
+
+        // when
+        shapes.sql(new Shape(Kind.SEARCH, false, false, false, SearchSort.DATE, SearchView.FULL));
+        shapes.sql(new Shape(Kind.SEARCH, false, false, false, SearchSort.DATE, SearchView.FULL,
+                EnumSet.of(Filter.ACTIVITY_TYPES)));
+        shapes.sql(new Shape(Kind.SEARCH, false, false, false, SearchSort.DATE, SearchView.FULL,
+                Set.of(Filter.ACTIVITY_TYPES)));
+
+        // then
+        assertThat(meterRegistry.get("events.search.statement.shapes").gauge().value()).isEqualTo(2);
+    }
+
+    private static List<Set<Filter>> filterCombinations() {
+        Filter[] filters = Filter.values();
+        List<Set<Filter>> combinations = new ArrayList<>();
+        for (int bits = 0; bits < 1 << filters.length; bits++) {
+            EnumSet<Filter> combination = EnumSet.noneOf(Filter.class);
+            for (int i = 0; i < filters.length; i++) {
+                if ((bits & 1 << i) != 0) {
+                    combination.add(filters[i]);
+                }
+            }
+            combinations.add(combination);
+        }
+        return combinations;
+    }
+
+    @Test
+    void whenShapeHasOptionalClauses_thenShouldRenderThem() {
+        // when
+        String sql = SearchStatementShapes.render(new Shape(Kind.SEARCH, true, true, false, SearchSort.RELEVANCE, SearchView.FULL));
+
+        // then
+        assertThat(sql)
+                .contains(":cellEnd" + (SearchStatementShapes.GEO_CELLS - 1))
+                .contains("websearch_to_tsquery('english', :q)")
+                .contains("ORDER BY rank DESC")
+                .contains("AS window_verified");
+    }
+
+    @Test
+    void whenShapeIsSummaryView_thenShouldNotSelectDescription() {
+        // when
+        String summary = SearchStatementShapes.render(
+                new Shape(Kind.SEARCH, false, false, false, SearchSort.DATE, SearchView.SUMMARY));
+        String full = SearchStatementShapes.render(
+                new Shape(Kind.SEARCH, false, false, false, SearchSort.DATE, SearchView.FULL));
+
+        // then
+        assertThat(summary).doesNotContain("e.description");
+        assertThat(full).contains("e.description");
+    }
+
+    @Test
+    void whenShapeIsFacets_thenShouldAggregateWithoutPaging() {
+        // when
+        String sql = SearchStatementShapes.render(new Shape(Kind.FACETS, false, false, false, SearchSort.DATE, SearchView.FULL));
+
+        // then
+        assertThat(sql)
+                .contains("WITH candidates AS")
+                .contains("'activityType'", "'capacity'", "'duration'")
+                .doesNotContain("LIMIT", "e.description");
+    }
+
+    @Test
+    void whenShapeIsSearchValidator_thenShouldAggregateOverThePageWindow() {
+        // when
+        String sql = SearchStatementShapes.render(
+                new Shape(Kind.SEARCH_VALIDATOR, false, true, true, SearchSort.DATE, SearchView.FULL));
+
+        // then
+        assertThat(sql)
+                .startsWith("/* findSearchValidator */")
+                .contains("count(*) AS count, max(w.last_modified_date) AS last_modified")
+                .contains("string_agg(CAST(w.id AS TEXT), ',' ORDER BY w.id)")
+                .contains("e.search_vector @@ websearch_to_tsquery('english', :q)")
+                .contains("AND (e.date_time, e.id) > (:cursorDateTime, :cursorId)")
+                .contains("ORDER BY e.date_time ASC, e.id ASC\nLIMIT :limit")
+                .doesNotContain("e.description", "window_verified");
+    }
+
+    @Test
+    void whenShapeIsById_thenShouldAggregateCategoriesInTheSameStatement() {
+        // when
+        String sql = SearchStatementShapes.render(new Shape(Kind.BY_ID, false, false, false, SearchSort.DATE, SearchView.FULL));
+
+        // then
+        assertThat(sql)
+                .startsWith("/* findById */")
+                .contains("e.description")
+                .contains("JOIN category c ON c.id = ec.category_id")
+                .contains("AS activity_types")
+                .contains("JOIN event e ON e.id = l.id AND e.active_until = l.active_until")
+                .contains("WHERE l.id = :id")
+                .doesNotContain("LIMIT");
+    }
+}
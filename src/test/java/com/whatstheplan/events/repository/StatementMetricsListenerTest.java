@@ -0,0 +1,56 @@
+package com.whatstheplan.events.repository;
+
+import com.whatstheplan.events.config.QueryMetricsProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class StatementMetricsListenerTest {
+
+    @Test
+    void whenResolvingOrigin_thenShouldPreferCommentAndFallBackToVerbAndTable() {
+        // given - when - then
+        assertThat(StatementMetricsListener.origin("/* searchEvents */\nSELECT e.id FROM event e"))
+                .isEqualTo("searchEvents");
+        assertThat(StatementMetricsListener.origin("SELECT event.* FROM event WHERE event.id = $1 LIMIT 2"))
+                .isEqualTo("select event");
+        assertThat(StatementMetricsListener.origin("INSERT INTO event_categories (id) VALUES ($1)"))
+                .isEqualTo("insert event_categories");
+        assertThat(StatementMetricsListener.origin("UPDATE event SET title = $1 WHERE id = $2"))
+                .isEqualTo("update event");
+        assertThat(StatementMetricsListener.origin("COMMIT")).isEqualTo("other");
+    }
+
+    @Test
+    void whenStatementCompletes_thenShouldRecordTimerByOriginAndOutcome() {
+        // given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StatementMetricsListener listener =
+                new StatementMetricsListener(new QueryMetricsProperties(), meterRegistry, null);
+        QueryExecutionInfo execInfo = mock(QueryExecutionInfo.class);
+        given(execInfo.getQueries()).willReturn(List.of(new QueryInfo("/* insert */ INSERT INTO event (id) VALUES ($1)")));
+        given(execInfo.getExecuteDuration()).willReturn(Duration.ofMillis(12));
+        given(execInfo.isSuccess()).willReturn(true);
+
+        // when
+        listener.afterQuery(execInfo);
+
+        // then
+        Timer timer = meterRegistry.find(StatementMetricsListener.TIMER)
+                .tags("origin", "insert", "outcome", "success")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(12);
+    }
+}
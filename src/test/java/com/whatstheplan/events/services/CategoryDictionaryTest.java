@@ -0,0 +1,105 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.CategoryDictionaryProperties;
+import com.whatstheplan.events.model.ActivityType;
+import com.whatstheplan.events.model.entities.Category;
+import com.whatstheplan.events.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+class CategoryDictionaryTest {
+
+    private CategoryRepository categoryRepository;
+    private CategoryDictionary categoryDictionary;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository = mock(CategoryRepository.class);
+        categoryDictionary = new CategoryDictionary(new CategoryDictionaryProperties(), categoryRepository);
+    }
+
+    @Test
+    void whenNameIsMissedConcurrently_thenShouldInsertOnceAndServeLaterLookupsFromSnapshot() {
+        // given
+        Category hiking = category("Hiking");
+        Sinks.One<Category> inserted = Sinks.one();
+        given(categoryRepository.insertIfAbsent(any(), eq("Hiking"))).willReturn(inserted.asMono());
+        CompletableFuture<Category> first = categoryDictionary.resolve("Hiking").toFuture();
+        CompletableFuture<Category> second = categoryDictionary.resolve("Hiking").toFuture();
+
+        // when
+        inserted.tryEmitValue(hiking);
+
+        // then
+        assertThat(first.join()).isEqualTo(hiking);
+        assertThat(second.join()).isEqualTo(hiking);
+        assertThat(categoryDictionary.resolve("Hiking").block()).isEqualTo(hiking);
+        then(categoryRepository).should(times(1)).insertIfAbsent(any(), eq("Hiking"));
+        then(categoryRepository).should(never()).findByName(any());
+    }
+
+    @Test
+    void whenInsertRacesAnotherWriter_thenShouldFallBackToStoredRow() {
+        // given
+        Category stored = category("Hiking");
+        given(categoryRepository.insertIfAbsent(any(), eq("Hiking"))).willReturn(Mono.empty());
+        given(categoryRepository.findByName("Hiking")).willReturn(Mono.just(stored));
+
+        // when
+        Category resolved = categoryDictionary.resolve("Hiking").block();
+
+        // then
+        assertThat(resolved).isEqualTo(stored);
+    }
+
+    @Test
+    void whenWarmedUp_thenShouldSeedActivityTypesAndResolveWithoutQueries() {
+        // given
+        Category soccer = category(ActivityType.SOCCER.getName());
+        given(categoryRepository.insertAllIfAbsent(any(), any())).willReturn(Mono.just(1L));
+        given(categoryRepository.findAll()).willReturn(Flux.just(soccer));
+
+        // when
+        categoryDictionary.load().block();
+
+        // then
+        assertThat(categoryDictionary.resolve(ActivityType.SOCCER.getName()).block()).isEqualTo(soccer);
+        then(categoryRepository).should(never()).insertIfAbsent(any(), any());
+    }
+
+    @Test
+    void whenReset_thenShouldForgetKnownCategories() {
+        // given
+        Category before = category("Hiking");
+        Category after = category("Hiking");
+        given(categoryRepository.insertIfAbsent(any(), eq("Hiking")))
+                .willReturn(Mono.just(before), Mono.just(after));
+        categoryDictionary.resolve("Hiking").block();
+
+        // when
+        categoryDictionary.reset();
+
+        // then
+        assertThat(categoryDictionary.resolve("Hiking").block()).isEqualTo(after);
+        then(categoryRepository).should(times(2)).insertIfAbsent(any(), eq("Hiking"));
+    }
+
+    private static Category category(String name) {
+        return Category.builder().id(UUID.randomUUID()).name(name).build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.LookupBatchingProperties;
+import com.whatstheplan.events.model.response.EventResponse;
+import com.whatstheplan.events.repository.EventsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+class EventLookupBatcherTest {
+
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    private final UUID missing = UUID.randomUUID();
+
+    private EventsRepository eventsRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private EventLookupBatcher eventLookupBatcher;
+
+    @BeforeEach
+    void setUp() {
+        LookupBatchingProperties properties = new LookupBatchingProperties();
+        properties.setWindow(Duration.ofMillis(50));
+        properties.setMaxBatchSize(4);
+        eventsRepository = mock(EventsRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        eventLookupBatcher = new EventLookupBatcher(properties, eventsRepository, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventLookupBatcher.shutdown();
+    }
+
+    @Test
+    void whenLookupsArriveWithinWindow_thenShouldLoadThemWithOneQueryAndShareDuplicates() {
+        // given
+        given(eventsRepository.findResponsesByIds(any()))
+                .willReturn(Flux.just(response(second), response(first)));
+
+        // when
+        List<Optional<EventResponse>> responses = Flux.concat(
+                        lookup(first), lookup(first), lookup(second), lookup(missing))
+                .collectList()
+                .block();
+
+        // then
+        assertThat(responses).extracting(response -> response.map(EventResponse::getId))
+                .containsExactly(Optional.of(first), Optional.of(first), Optional.of(second), Optional.empty());
+        then(eventsRepository).should().findResponsesByIds(List.of(first, second, missing));
+        then(eventsRepository).should(never()).findResponseById(any());
+        assertThat(meterRegistry.get("events.lookup.coalesced").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("events.lookup.batch.fill").summary().totalAmount()).isEqualTo(0.75);
+        assertThat(meterRegistry.get("events.lookup.batch.wait").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void whenBatchingIsDisabled_thenShouldLoadById() {
+        // given
+        LookupBatchingProperties properties = new LookupBatchingProperties();
+        properties.setEnabled(false);
+        EventLookupBatcher disabled = new EventLookupBatcher(properties, eventsRepository, meterRegistry);
+        given(eventsRepository.findResponseById(first)).willReturn(Mono.just(response(first)));
+
+        // when
+        EventResponse response = disabled.findById(first).block();
+
+        // then
+        assertThat(response).isNotNull();
+        assertThat(response.getId()).isEqualTo(first);
+        then(eventsRepository).should(never()).findResponsesByIds(any());
+        disabled.shutdown();
+    }
+
+    @Test
+    void whenMoreBatchesThanConcurrencyAreQueuedAgainstSlowRepository_thenShouldCompleteEveryLookup() {
+        // given
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        given(eventsRepository.findResponsesByIds(any())).willAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            return Flux.fromIterable(ids)
+                    .map(EventLookupBatcherTest::response)
+                    .delaySubscription(Duration.ofMillis(200))
+                    .doOnSubscribe(subscription -> maxActive.accumulateAndGet(active.incrementAndGet(), Math::max))
+                    .doFinally(signal -> active.decrementAndGet());
+        });
+        given(eventsRepository.findResponseById(any()))
+                .willAnswer(invocation -> Mono.just(response(invocation.getArgument(0))));
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(24).toList();
+
+        // when
+        List<Optional<EventResponse>> responses = Flux.concat(ids.stream().map(this::lookup).toList())
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        // then
+        assertThat(responses).extracting(response -> response.map(EventResponse::getId))
+                .containsExactlyElementsOf(ids.stream().map(Optional::of).toList());
+        assertThat(maxActive.get()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void whenRepositoryThrows_thenShouldFailThatBatchAndKeepServingLookups() {
+        // given
+        given(eventsRepository.findResponseById(first))
+                .willThrow(new IllegalStateException("connection lost"));
+        given(eventsRepository.findResponseById(second)).willReturn(Mono.just(response(second)));
+
+        // when
+        Throwable failure = catchThrowable(() -> eventLookupBatcher.findById(first).block(Duration.ofSeconds(5)));
+        EventResponse response = eventLookupBatcher.findById(second).block(Duration.ofSeconds(5));
+
+        // then
+        assertThat(failure).hasMessageContaining("connection lost");
+        assertThat(response).isNotNull();
+        assertThat(response.getId()).isEqualTo(second);
+    }
+
+    // Subscribes eagerly so every lookup joins the same window before any result is awaited.
+    private Mono<Optional<EventResponse>> lookup(UUID id) {
+        CompletableFuture<Optional<EventResponse>> future = eventLookupBatcher.findById(id)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+        return Mono.fromFuture(future);
+    }
+
+    private static EventResponse response(UUID id) {
+        return EventResponse.builder().id(id).title("Event " + id).build();
+    }
+}
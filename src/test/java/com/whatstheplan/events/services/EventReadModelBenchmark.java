@@ -0,0 +1,126 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.ReadModelProperties;
+import com.whatstheplan.events.model.ActivityType;
+import com.whatstheplan.events.model.SearchView;
+import com.whatstheplan.events.model.entities.Event;
+import com.whatstheplan.events.model.request.EventFilterRequest;
+import com.whatstheplan.events.model.response.EventResponse;
+import com.whatstheplan.events.testconfig.BaseIntegrationTest;
+import com.whatstheplan.events.utils.RecurrenceRuleCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.whatstheplan.events.testconfig.utils.DataMockUtils.TODAY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compares a page answered by the SQL search with the same page selected from the read model and fetched by id.
+// Run with ./gradlew benchmark.
+@Tag("benchmark")
+class EventReadModelBenchmark extends BaseIntegrationTest {
+
+    private static final int EVENTS = 5_000;
+    private static final int QUERIES = 500;
+    private static final List<String> LOCATIONS = List.of("Madrid", "Paris", "London", "Berlin");
+    private static final List<String> ACTIVITY_TYPES = List.of("Soccer", "Tennis", "Dancing", "Painting");
+
+    private static final Logger log = LoggerFactory.getLogger(EventReadModelBenchmark.class);
+
+    @Autowired
+    private RecurrenceRuleCache recurrenceRuleCache;
+
+    @Test
+    void compareSqlSearchWithReadModel() {
+        Random random = new Random(11);
+        Flux.range(0, EVENTS)
+                .map(i -> Event.builder()
+                        .id(UUID.randomUUID())
+                        .title("Event " + i)
+                        .description("Benchmark event " + i)
+                        .dateTime(TODAY.plusHours(1 + random.nextInt(24 * 60)))
+                        .duration(Duration.ofMinutes(30L * (1 + random.nextInt(8))))
+                        .location(LOCATIONS.get(random.nextInt(LOCATIONS.size())))
+                        .capacity(1 + random.nextInt(100))
+                        .activityMask(ActivityType.mask(List.of(ACTIVITY_TYPES.get(random.nextInt(ACTIVITY_TYPES.size())))))
+                        .organizerId(USER_ID)
+                        .isNew(true)
+                        .build())
+                .concatMap(eventsRepository::insert)
+                .blockLast();
+
+        ReadModelProperties properties = new ReadModelProperties();
+        properties.setEnabled(true);
+        EventReadModel readModel = new EventReadModel(
+                properties, recurrenceRuleCache, eventsRepository, new SimpleMeterRegistry());
+        readModel.load(eventsRepository.findUpcoming(TODAY), TODAY).block();
+
+        List<EventFilterRequest> filters = IntStream.range(0, QUERIES)
+                .mapToObj(i -> randomFilter(random))
+                .toList();
+        assertThat(filters).allMatch(readModel::canAnswer);
+
+        Function<EventFilterRequest, Flux<UUID>> sql = filter -> eventsRepository.searchEvents(filter)
+                .map(EventResponse::getId);
+        Function<EventFilterRequest, Flux<UUID>> readModelPage = filter ->
+                eventsRepository.findSearchRowsByIds(readModel.search(filter), SearchView.FULL)
+                        .map(EventResponse::getId);
+
+        for (EventFilterRequest filter : filters.subList(0, 20)) {
+            assertThat(readModelPage.apply(filter).collectList().block())
+                    .isEqualTo(sql.apply(filter).collectList().block());
+        }
+
+        run(filters, sql);
+        run(filters, readModelPage);
+        long sqlNanos = run(filters, sql);
+        long readModelNanos = run(filters, readModelPage);
+        long scanNanos = time(() -> filters.forEach(readModel::search));
+
+        log.info("SQL search: {} us/query, read model + fetch by id: {} us/query, read model scan only: {} us/query "
+                        + "({} events, {} queries)",
+                sqlNanos / QUERIES / 1_000, readModelNanos / QUERIES / 1_000, scanNanos / QUERIES / 1_000,
+                EVENTS, QUERIES);
+    }
+
+    private static long run(List<EventFilterRequest> filters, Function<EventFilterRequest, Flux<UUID>> query) {
+        return time(() -> Flux.fromIterable(filters).concatMap(query).blockLast());
+    }
+
+    private static long time(Runnable runnable) {
+        long start = System.nanoTime();
+        runnable.run();
+        return System.nanoTime() - start;
+    }
+
+    private static EventFilterRequest randomFilter(Random random) {
+        EventFilterRequest.EventFilterRequestBuilder builder = EventFilterRequest.builder()
+                .dateTimeFrom(TODAY)
+                .dateTimeTo(TODAY.plusDays(7 + random.nextInt(50)))
+                .limit(50);
+        if (random.nextBoolean()) {
+            builder.location(LOCATIONS.get(random.nextInt(LOCATIONS.size())));
+        }
+        if (random.nextBoolean()) {
+            builder.activityTypes(List.of(ACTIVITY_TYPES.get(random.nextInt(ACTIVITY_TYPES.size()))));
+        }
+        if (random.nextBoolean()) {
+            builder.durationTo(Duration.ofHours(2 + random.nextInt(3)));
+        }
+        if (random.nextBoolean()) {
+            builder.capacityMin(random.nextInt(50));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,243 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.ReadModelProperties;
+import com.whatstheplan.events.config.RecurrenceCacheProperties;
+import com.whatstheplan.events.model.ActivityType;
+import com.whatstheplan.events.model.SearchCursor;
+import com.whatstheplan.events.model.SearchSort;
+import com.whatstheplan.events.model.entities.Event;
+import com.whatstheplan.events.model.request.EventFilterRequest;
+import com.whatstheplan.events.utils.RecurrenceRuleCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventReadModelTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 10, 0);
+
+    private EventReadModel eventReadModel;
+
+    @BeforeEach
+    void setUp() {
+        ReadModelProperties properties = new ReadModelProperties();
+        properties.setEnabled(true);
+        properties.setInitialCapacity(2);
+        eventReadModel = new EventReadModel(
+                properties,
+                new RecurrenceRuleCache(new RecurrenceCacheProperties(), new SimpleMeterRegistry()),
+                null,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void whenSearching_thenShouldFilterAndOrderByDateThenId() {
+        // given
+        Event paris = event(e -> e.location("Paris").dateTime(NOW.plusDays(2)).capacity(20));
+        Event parisEarlier = event(e -> e.location("Paris").dateTime(NOW.plusDays(1)).capacity(15));
+        Event parisTooBig = event(e -> e.location("Paris").dateTime(NOW.plusDays(1)).capacity(80));
+        Event london = event(e -> e.location("London").dateTime(NOW.plusDays(1)));
+        Event parisPast = event(e -> e.location("Paris").dateTime(NOW.minusDays(1)));
+        load(paris, parisEarlier, parisTooBig, london, parisPast);
+
+        // when
+        List<UUID> ids = eventReadModel.search(filter(f -> f.location("Paris").capacityMax(50)));
+
+        // then
+        assertThat(ids).containsExactly(parisEarlier.getId(), paris.getId());
+    }
+
+    @Test
+    void whenSearchingWithCursor_thenShouldWalkPagesWithoutGapsOrRepeats() {
+        // given
+        List<Event> events = List.of(
+                event(e -> e.dateTime(NOW.plusDays(1))),
+                event(e -> e.dateTime(NOW.plusDays(1))),
+                event(e -> e.dateTime(NOW.plusDays(2))),
+                event(e -> e.dateTime(NOW.plusDays(3))),
+                event(e -> e.dateTime(NOW.plusDays(4))));
+        load(events.toArray(Event[]::new));
+
+        // when
+        EventReadModel.Page firstPage = eventReadModel.page(filter(f -> f.limit(3)));
+        String cursor = firstPage.next().encode();
+        EventReadModel.Page secondPage = eventReadModel.page(filter(f -> f.limit(3).cursor(cursor)));
+
+        // then
+        Event last = events.stream().filter(e -> e.getId().equals(firstPage.ids().get(2))).findFirst().orElseThrow();
+        assertThat(firstPage.next()).isEqualTo(new SearchCursor(last.getDateTime(), last.getId()));
+        assertThat(firstPage.ids()).hasSize(3);
+        assertThat(secondPage.ids()).hasSize(2);
+        assertThat(secondPage.next()).isNull();
+        assertThat(firstPage.ids()).doesNotContainAnyElementsOf(secondPage.ids());
+    }
+
+    @Test
+    void whenSearching_thenShouldApplyActivityTypesDurationAndRecurrence() {
+        // given
+        Event soccer = event(e -> e
+                .dateTime(NOW.plusDays(1))
+                .activityMask(ActivityType.mask(List.of("Soccer"))));
+        Event longSoccer = event(e -> e
+                .dateTime(NOW.plusDays(1))
+                .duration(Duration.ofHours(5))
+                .activityMask(ActivityType.mask(List.of("Soccer"))));
+        Event weeklySoccer = event(e -> e
+                .dateTime(NOW.minusDays(30))
+                .recurrence("FREQ=WEEKLY")
+                .activityMask(ActivityType.mask(List.of("Soccer", "Tennis"))));
+        Event endedSoccer = event(e -> e
+                .dateTime(NOW.minusDays(30))
+                .recurrence("FREQ=DAILY;COUNT=3")
+                .seriesEnd(NOW.minusDays(28))
+                .activityMask(ActivityType.mask(List.of("Soccer"))));
+        Event tennis = event(e -> e
+                .dateTime(NOW.plusDays(1))
+                .activityMask(ActivityType.mask(List.of("Tennis"))));
+        load(soccer, longSoccer, weeklySoccer, endedSoccer, tennis);
+
+        // when
+        List<UUID> ids = eventReadModel.search(filter(f -> f
+                .activityTypes(List.of("Soccer"))
+                .durationTo(Duration.ofHours(2))));
+
+        // then
+        assertThat(ids).containsExactlyInAnyOrder(soccer.getId(), weeklySoccer.getId());
+    }
+
+    @Test
+    void whenEventIsUpdatedOrRemoved_thenShouldReflectLatestVersion() {
+        // given
+        Event original = event(e -> e.location("Paris").lastModifiedDate(Instant.parse("2025-06-01T10:00:00Z")));
+        load(original);
+        Event moved = event(e -> e.id(original.getId()).location("London")
+                .lastModifiedDate(Instant.parse("2025-06-01T10:05:00Z")));
+        Event stale = event(e -> e.id(original.getId()).location("Berlin")
+                .lastModifiedDate(Instant.parse("2025-06-01T10:01:00Z")));
+
+        // when
+        eventReadModel.upsert(moved);
+        eventReadModel.upsert(stale);
+
+        // then
+        assertThat(eventReadModel.search(filter(f -> f.location("London")))).containsExactly(original.getId());
+        assertThat(eventReadModel.search(filter(f -> f.location("Berlin")))).isEmpty();
+
+        // when
+        eventReadModel.remove(original.getId());
+
+        // then
+        assertThat(eventReadModel.search(filter(f -> f.location("London")))).isEmpty();
+        assertThat(eventReadModel.size()).isZero();
+    }
+
+    @Test
+    void whenPastEventsAreEvicted_thenShouldDropThemAndOnlyAnswerLaterWindows() {
+        // given
+        Event past = event(e -> e.dateTime(NOW.plusHours(1)));
+        Event upcoming = event(e -> e.dateTime(NOW.plusDays(2)));
+        Event endedSeries = event(e -> e
+                .dateTime(NOW.minusDays(30))
+                .recurrence("FREQ=DAILY;COUNT=31")
+                .seriesEnd(NOW));
+        Event ongoingSeries = event(e -> e
+                .dateTime(NOW.minusDays(30))
+                .recurrence("FREQ=WEEKLY"));
+        load(past, upcoming, endedSeries, ongoingSeries);
+
+        // when
+        int evicted = eventReadModel.evictBefore(NOW.plusDays(1));
+
+        // then
+        assertThat(evicted).isEqualTo(2);
+        assertThat(eventReadModel.size()).isEqualTo(2);
+        assertThat(eventReadModel.canAnswer(filter(f -> {
+        }))).isFalse();
+        assertThat(eventReadModel.search(filter(f -> f.dateTimeFrom(NOW.plusDays(1)))))
+                .containsExactlyInAnyOrder(upcoming.getId(), ongoingSeries.getId());
+    }
+
+    @Test
+    void whenLocationIsUnknown_thenShouldReturnEmptyPageWithoutCursor() {
+        // given
+        load(event(e -> e.location("Paris")));
+
+        // when
+        EventReadModel.Page page = eventReadModel.page(filter(f -> f.location("Atlantis")));
+
+        // then
+        assertThat(page.ids()).isEmpty();
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    void whenLastEventAtLocationLeaves_thenShouldDropLocation() {
+        // given
+        Event paris = event(e -> e.location("Paris").dateTime(NOW.plusHours(1)));
+        Event london = event(e -> e.location("London").dateTime(NOW.plusDays(2)));
+        Event berlin = event(e -> e.location("Berlin").dateTime(NOW.plusDays(2)));
+        Event otherBerlin = event(e -> e.location("Berlin").dateTime(NOW.plusDays(3)));
+        load(paris, london, berlin, otherBerlin);
+
+        // when
+        eventReadModel.evictBefore(NOW.plusDays(1));
+        eventReadModel.remove(london.getId());
+        eventReadModel.remove(berlin.getId());
+
+        // then
+        assertThat(eventReadModel.locations()).isEqualTo(1);
+        assertThat(eventReadModel.search(filter(f -> f.dateTimeFrom(NOW.plusDays(1)).location("Berlin"))))
+                .containsExactly(otherBerlin.getId());
+        assertThat(eventReadModel.search(filter(f -> f.dateTimeFrom(NOW.plusDays(1)).location("Paris")))).isEmpty();
+    }
+
+    @Test
+    void whenFilterNeedsSql_thenShouldNotAnswerFromReadModel() {
+        // given
+        load();
+
+        // when - then
+        assertThat(eventReadModel.canAnswer(filter(f -> {
+        }))).isTrue();
+        assertThat(eventReadModel.canAnswer(filter(f -> f.q("yoga")))).isFalse();
+        assertThat(eventReadModel.canAnswer(filter(f -> f.lat(40.4).lon(-3.7).radiusKm(5.0)))).isFalse();
+        assertThat(eventReadModel.canAnswer(filter(f -> f.sort(SearchSort.RELEVANCE)))).isFalse();
+        assertThat(eventReadModel.canAnswer(filter(f -> f.dateTimeFrom(NOW.minusDays(1))))).isFalse();
+    }
+
+    private void load(Event... events) {
+        eventReadModel.load(Flux.just(events), NOW).block();
+    }
+
+    private static EventFilterRequest filter(Consumer<EventFilterRequest.EventFilterRequestBuilder> customizer) {
+        EventFilterRequest.EventFilterRequestBuilder builder = EventFilterRequest.builder()
+                .dateTimeFrom(NOW)
+                .dateTimeTo(NOW.plusMonths(2))
+                .limit(50);
+        customizer.accept(builder);
+        return builder.build();
+    }
+
+    private static Event event(Consumer<Event.EventBuilder> customizer) {
+        Event.EventBuilder builder = Event.builder()
+                .id(UUID.randomUUID())
+                .title("Test Event")
+                .dateTime(NOW.plusDays(1))
+                .duration(Duration.ofHours(1))
+                .location("Default Location")
+                .capacity(10)
+                .activityMask(0L);
+        customizer.accept(builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.EventCacheProperties;
+import com.whatstheplan.events.model.EventChange;
+import com.whatstheplan.events.model.Recurrence;
+import com.whatstheplan.events.model.response.EventResponse;
+import com.whatstheplan.events.model.response.EventSummaryResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventResponseCacheTest {
+
+    private static final Instant VERSION = Instant.parse("2025-06-01T10:00:00Z");
+
+    private final UUID id = UUID.randomUUID();
+
+    private EventResponseCache eventResponseCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        eventResponseCache = new EventResponseCache(new EventCacheProperties(), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void whenHotKeyMissesConcurrently_thenShouldLoadOnce() {
+        // given
+        Sinks.One<EventResponse> pending = Sinks.one();
+        CompletableFuture<EventResponse> first = eventResponseCache.get(id, key -> load(pending.asMono())).toFuture();
+        CompletableFuture<EventResponse> second = eventResponseCache.get(id, key -> load(pending.asMono())).toFuture();
+
+        // when
+        pending.tryEmitValue(response(VERSION));
+
+        // then
+        assertThat(first.join()).isEqualTo(second.join());
+        assertThat(eventResponseCache.get(id, key -> load(Mono.just(response(VERSION)))).block())
+                .isEqualTo(first.join());
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void whenCallerChangesReturnedResponse_thenShouldKeepCachedResponseUnchanged() {
+        // given
+        EventResponse first = eventResponseCache.get(id, key -> load(Mono.just(response(VERSION)))).block();
+
+        // when
+        first.setTitle("Changed");
+        first.getRecurrence().getByDays().add("FR");
+        EventResponse second = eventResponseCache.get(id, key -> load(Mono.just(response(VERSION)))).block();
+
+        // then
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getTitle()).isEqualTo("Concert");
+        assertThat(second.getRecurrence().getByDays()).containsExactly("MO");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void whenCachedResponseIsSummary_thenShouldReturnSummaryCopies() {
+        // given
+        EventSummaryResponse summary = EventSummaryResponse.builder()
+                .id(id)
+                .title("Concert")
+                .windowVerified(true)
+                .lastModifiedDate(VERSION)
+                .build();
+
+        // when
+        EventResponse cached = eventResponseCache.get(id, key -> load(Mono.just(summary))).block();
+
+        // then
+        assertThat(cached).isInstanceOf(EventSummaryResponse.class).isNotSameAs(summary);
+        assertThat(cached.isWindowVerified()).isTrue();
+    }
+
+    @Test
+    void whenLoadIsOlderThanLastWrite_thenShouldServeItWithoutCaching() {
+        // given
+        eventResponseCache.invalidate(id, VERSION.plusSeconds(1));
+
+        // when
+        EventResponse stale = eventResponseCache.get(id, key -> load(Mono.just(response(VERSION)))).block();
+        EventResponse fresh = eventResponseCache.get(id, key -> load(Mono.just(response(VERSION.plusSeconds(1)))))
+                .block();
+
+        // then
+        assertThat(stale.getLastModifiedDate()).isEqualTo(VERSION);
+        assertThat(fresh.getLastModifiedDate()).isEqualTo(VERSION.plusSeconds(1));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void whenAnotherNodeChangesEvent_thenShouldEvictEntry() {
+        // given
+        eventResponseCache.get(id, key -> load(Mono.just(response(VERSION)))).block();
+
+        // when
+        eventResponseCache.onEventChanged(new EventChange(id, EventChange.Operation.UPDATE, "event", "node-b", false))
+                .block();
+        eventResponseCache.get(id, key -> load(Mono.just(response(VERSION)))).block();
+
+        // then
+        assertThat(loads).hasValue(2);
+    }
+
+    private Mono<EventResponse> load(Mono<EventResponse> response) {
+        loads.incrementAndGet();
+        return response;
+    }
+
+    private EventResponse response(Instant lastModifiedDate) {
+        return EventResponse.builder()
+                .id(id)
+                .title("Concert")
+                .recurrence(Recurrence.builder().frequency("WEEKLY").byDays(new ArrayList<>(List.of("MO"))).build())
+                .lastModifiedDate(lastModifiedDate)
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.RecurrenceCacheProperties;
+import com.whatstheplan.events.config.SearchProperties;
+import com.whatstheplan.events.model.Recurrence;
+import com.whatstheplan.events.model.request.EventFilterRequest;
+import com.whatstheplan.events.model.response.EventResponse;
+import com.whatstheplan.events.repository.EventsRepository;
+import com.whatstheplan.events.utils.RecurrenceRuleCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class EventSearchServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 6, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(7);
+
+    private EventsRepository eventsRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private EventSearchService eventSearchService;
+
+    @BeforeEach
+    void setUp() {
+        SearchProperties searchProperties = new SearchProperties();
+        searchProperties.setOccurrenceBatchSize(2);
+        searchProperties.setOccurrenceParallelism(4);
+        eventsRepository = mock(EventsRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        eventSearchService = new EventSearchService(
+                eventsRepository,
+                new RecurrenceRuleCache(new RecurrenceCacheProperties(), meterRegistry),
+                mock(SearchResultCache.class),
+                mock(EventReadModel.class),
+                searchProperties,
+                meterRegistry);
+    }
+
+    @Test
+    void whenRowsSpanSeveralBatches_thenShouldKeepOrderAndDropSeriesOutsideWindow() {
+        // given
+        EventResponse oneOff = oneOff("one-off");
+        EventResponse dailyInWindow = daily("daily in window", FROM.minusDays(3), 10);
+        EventResponse endedSeries = daily("ended series", FROM.minusDays(10), 2);
+        EventResponse lateOneOff = oneOff("late one-off");
+        EventResponse dailyFromMidWeek = daily("daily from mid-week", FROM.plusDays(3), 10);
+        given(eventsRepository.searchEvents(any()))
+                .willReturn(Flux.just(oneOff, dailyInWindow, endedSeries, lateOneOff, dailyFromMidWeek));
+
+        // when
+        List<EventResponse> events = eventSearchService.searchEvents(filter()).collectList().block();
+
+        // then
+        assertThat(events).extracting(EventResponse::getTitle)
+                .containsExactly("one-off", "daily in window", "late one-off", "daily from mid-week");
+    }
+
+    @Test
+    void whenBatchHasNoRowsToCheck_thenShouldSkipRecurrenceEvaluation() {
+        // given
+        EventResponse verifiedSeries = daily("verified series", FROM.minusDays(10), 2);
+        verifiedSeries.setWindowVerified(true);
+        given(eventsRepository.searchEvents(any()))
+                .willReturn(Flux.just(oneOff("first"), verifiedSeries, oneOff("second")));
+
+        // when
+        List<EventResponse> events = eventSearchService.searchEvents(filter()).collectList().block();
+
+        // then
+        assertThat(events).extracting(EventResponse::getTitle)
+                .containsExactly("first", "verified series", "second");
+        assertThat(meterRegistry.find("events.search.occurrence.batch").timer()).isNull();
+    }
+
+    @Test
+    void whenStreamedRowsArriveSlowly_thenShouldEmitThemBeforeBatchIsFull() {
+        // given
+        given(eventsRepository.searchEvents(any()))
+                .willReturn(Flux.concat(Flux.just(oneOff("first")), Flux.never()));
+
+        // when - then
+        StepVerifier.create(eventSearchService.streamEvents(filter()))
+                .assertNext(event -> assertThat(event.getTitle()).isEqualTo("first"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private static EventFilterRequest filter() {
+        return EventFilterRequest.builder()
+                .dateTimeFrom(FROM)
+                .dateTimeTo(TO)
+                .build();
+    }
+
+    private static EventResponse oneOff(String title) {
+        return EventResponse.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .dateTime(FROM.plusDays(1))
+                .build();
+    }
+
+    private static EventResponse daily(String title, LocalDateTime seed, int count) {
+        return EventResponse.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .dateTime(seed)
+                .recurrence(Recurrence.builder().frequency("DAILY").count(count).build())
+                .recurrenceRule("FREQ=DAILY;COUNT=" + count)
+                .build();
+    }
+}
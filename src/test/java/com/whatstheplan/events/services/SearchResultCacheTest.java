@@ -0,0 +1,158 @@
+package com.whatstheplan.events.services;
+
+import com.whatstheplan.events.config.SearchCacheProperties;
+import com.whatstheplan.events.model.entities.Event;
+import com.whatstheplan.events.model.request.EventFilterRequest;
+import com.whatstheplan.events.model.response.EventPageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 10, 15, 42);
+
+    private SearchResultCache searchResultCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        searchResultCache = new SearchResultCache(new SearchCacheProperties(), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void whenFiltersOnlyDifferInSecondsAndActivityOrder_thenShouldShareEntry() {
+        // given
+        EventFilterRequest first = filter(NOW, List.of("Hiking", "Music"));
+        EventFilterRequest second = filter(NOW.plusSeconds(10), List.of("Music", "Hiking"));
+
+        // when
+        EventPageResponse firstPage = searchResultCache.get(first, this::load).block();
+        EventPageResponse secondPage = searchResultCache.get(second, this::load).block();
+
+        // then
+        assertThat(secondPage).isSameAs(firstPage);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void whenFilterIsNormalized_thenWindowShouldBeWidenedToGranularity() {
+        // when
+        EventFilterRequest normalized = searchResultCache.normalize(filter(NOW, List.of("Music", "Hiking", "Music")));
+
+        // then
+        assertThat(normalized.getDateTimeFrom()).isEqualTo(LocalDateTime.of(2025, 6, 1, 10, 15));
+        assertThat(normalized.getDateTimeTo()).isEqualTo(LocalDateTime.of(2025, 8, 1, 10, 16));
+        assertThat(normalized.getActivityTypes()).containsExactly("Hiking", "Music");
+    }
+
+    @Test
+    void whenEventIsInvalidated_thenOnlyMatchingEntriesShouldBeEvicted() {
+        // given
+        EventFilterRequest hiking = filter(NOW, List.of("Hiking"));
+        EventFilterRequest music = filter(NOW, List.of("Music"));
+        searchResultCache.get(hiking, this::load).block();
+        searchResultCache.get(music, this::load).block();
+
+        Event event = Event.builder()
+                .id(UUID.randomUUID())
+                .dateTime(NOW.plusDays(3))
+                .build();
+
+        // when
+        searchResultCache.invalidate(event, List.of("Hiking"));
+        searchResultCache.get(hiking, this::load).block();
+        searchResultCache.get(music, this::load).block();
+
+        // then
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void whenEventIsOutsideWindow_thenEntryShouldBeKept() {
+        // given
+        EventFilterRequest filter = filter(NOW, List.of());
+        searchResultCache.get(filter, this::load).block();
+
+        Event event = Event.builder()
+                .id(UUID.randomUUID())
+                .dateTime(NOW.plusMonths(6))
+                .build();
+
+        // when
+        searchResultCache.invalidate(event, null);
+        searchResultCache.get(filter, this::load).block();
+
+        // then
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void whenEntryIsLoaded_thenLoaderShouldReceiveCallersFilter() {
+        // given
+        EventFilterRequest filter = filter(NOW, List.of("Music", "Hiking"));
+        AtomicReference<EventFilterRequest> loaded = new AtomicReference<>();
+
+        // when
+        searchResultCache.get(filter, f -> {
+            loaded.set(f);
+            return load(f);
+        }).block();
+
+        // then
+        assertThat(loaded.get()).isSameAs(filter);
+    }
+
+    @Test
+    void whenEventIsInvalidatedWhileLoading_thenLoadedPageShouldNotBeCached() {
+        // given
+        EventFilterRequest filter = filter(NOW, List.of());
+        Sinks.One<EventPageResponse> pending = Sinks.one();
+        CompletableFuture<EventPageResponse> inFlight = searchResultCache.get(filter, f -> {
+            loads.incrementAndGet();
+            return pending.asMono();
+        }).toFuture();
+
+        Event event = Event.builder()
+                .id(UUID.randomUUID())
+                .dateTime(NOW.plusDays(3))
+                .build();
+
+        // when
+        searchResultCache.invalidate(event, null);
+        pending.tryEmitValue(EventPageResponse.builder().events(List.of()).build());
+        searchResultCache.get(filter, this::load).block();
+
+        // then
+        assertThat(inFlight).isCompleted();
+        assertThat(loads).hasValue(2);
+    }
+
+    private EventFilterRequest filter(LocalDateTime now, List<String> activityTypes) {
+        return EventFilterRequest.builder()
+                .dateTimeFrom(now)
+                .dateTimeTo(now.plusMonths(2))
+                .activityTypes(activityTypes)
+                .limit(50)
+                .build();
+    }
+
+    private Mono<EventPageResponse> load(EventFilterRequest filter) {
+        return Mono.fromCallable(() -> {
+            loads.incrementAndGet();
+            return EventPageResponse.builder().events(List.of()).build();
+        });
+    }
+}
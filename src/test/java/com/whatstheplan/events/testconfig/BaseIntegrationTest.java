@@ -3,6 +3,9 @@ package com.whatstheplan.events.testconfig;
 import com.whatstheplan.events.repository.CategoryRepository;
 import com.whatstheplan.events.repository.EventCategoriesRepository;
 import com.whatstheplan.events.repository.EventsRepository;
+import com.whatstheplan.events.services.CategoryDictionary;
+import com.whatstheplan.events.services.EventResponseCache;
+import com.whatstheplan.events.services.SearchResultCache;
 import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -53,6 +56,15 @@ public class BaseIntegrationTest {
     @Autowired
     protected WebTestClient webTestClient;
 
+    @Autowired
+    protected SearchResultCache searchResultCache;
+
+    @Autowired
+    protected EventResponseCache eventResponseCache;
+
+    @Autowired
+    protected CategoryDictionary categoryDictionary;
+
     private static EmbeddedPostgres pg;
 
 
@@ -70,6 +82,9 @@ public class BaseIntegrationTest {
         eventsRepository.deleteAll().block();
         categoryRepository.deleteAll().block();
         eventCategoriesRepository.deleteAll().block();
+        searchResultCache.invalidateAll();
+        eventResponseCache.invalidateAll();
+        categoryDictionary.reset();
     }
 
     @AfterAll
@@ -0,0 +1,61 @@
+package com.whatstheplan.events.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GeoHashUtilsTest {
+
+    @Test
+    void encode_KnownCoordinates_ReturnsReferenceHash() {
+        assertThat(GeoHashUtils.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(GeoHashUtils.encode(40.416775, -3.703790, 6)).isEqualTo("ezjmgt");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "40.416775, -3.703790, 0.5",
+            "40.416775, -3.703790, 5",
+            "40.416775, -3.703790, 50",
+            "-33.868820, 151.209296, 12",
+            "0.0, 179.99, 20",
+            "64.146582, -21.942635, 30"
+    })
+    void coveringCells_PointsWithinRadius_AreCoveredByACell(double latitude, double longitude, double radiusKm) {
+        List<String> cells = GeoHashUtils.coveringCells(latitude, longitude, radiusKm);
+        assertThat(cells).isNotEmpty().hasSizeLessThanOrEqualTo(9);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double distance = radiusKm * Math.sqrt(random.nextDouble());
+            double dLat = distance * Math.cos(bearing) / 111.2;
+            double dLon = distance * Math.sin(bearing) / (111.2 * Math.cos(Math.toRadians(latitude + dLat)));
+            double pointLat = latitude + dLat;
+            double pointLon = longitude + dLon > 180 ? longitude + dLon - 360 : longitude + dLon;
+
+            if (GeoHashUtils.distanceKm(latitude, longitude, pointLat, pointLon) > radiusKm) {
+                continue;
+            }
+            String hash = GeoHashUtils.encode(pointLat, pointLon);
+            assertThat(cells).anySatisfy(cell -> assertThat(hash).startsWith(cell));
+        }
+    }
+
+    @Test
+    void coveringCells_RadiusReachingPole_ReturnsNoPrefilter() {
+        assertThat(GeoHashUtils.coveringCells(89.9, 0, 50)).isEmpty();
+        assertThat(GeoHashUtils.coveringCells(0, 0, 10_000)).isEmpty();
+    }
+
+    @Test
+    void distanceKm_MadridToBarcelona_IsAboutFiveHundredKm() {
+        assertThat(GeoHashUtils.distanceKm(40.416775, -3.703790, 41.385064, 2.173404))
+                .isBetween(500.0, 510.0);
+    }
+}
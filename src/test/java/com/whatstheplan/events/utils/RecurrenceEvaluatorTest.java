@@ -0,0 +1,139 @@
+package com.whatstheplan.events.utils;
+
+import com.whatstheplan.events.model.Recurrence;
+import net.fortuna.ical4j.model.Recur;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurrenceEvaluatorTest {
+
+    private static final long RANDOM_SEED = 20241017L;
+    private static final int SAMPLES = 2000;
+    private static final List<String> FREQUENCIES = List.of("DAILY", "WEEKLY", "MONTHLY", "YEARLY");
+    private static final List<String> DAYS = List.of("MO", "TU", "WE", "TH", "FR", "SA", "SU");
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @ParameterizedTest(name = "[{index}] {0} seed={1} window={2}..{3}")
+    @MethodSource("randomSupportedRules")
+    void whenRuleIsSupported_thenShouldAgreeWithIcal4j(String rule, LocalDateTime seed, LocalDateTime from,
+                                                       LocalDateTime to) {
+        // given
+        Recurrence recurrence = RecurrenceUtils.parseRRule(rule);
+        List<LocalDateTime> expected = new Recur<LocalDateTime>(rule).getDates(seed, from, to);
+
+        // when
+        LocalDateTime actual = RecurrenceEvaluator.firstOccurrenceAtOrAfter(recurrence, seed, from);
+
+        // then
+        if (expected.isEmpty()) {
+            assertThat(actual == null || actual.isAfter(to))
+                    .as("expected no occurrence in window but got %s", actual)
+                    .isTrue();
+        } else {
+            assertThat(actual).isEqualTo(Collections.min(expected));
+        }
+        assertThat(RecurrenceEvaluator.occursBetween(recurrence, seed, from, to)).isEqualTo(!expected.isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("unsupportedRules")
+    void whenRuleDependsOnIcal4jSpecifics_thenShouldNotBeSupported(String rule, LocalDateTime seed) {
+        // when
+        boolean supported = RecurrenceEvaluator.supports(RecurrenceUtils.parseRRule(rule), seed);
+
+        // then
+        assertThat(supported).isFalse();
+    }
+
+    @Test
+    void whenCountIsExhausted_thenShouldReturnNoOccurrence() {
+        // given
+        Recurrence recurrence = RecurrenceUtils.parseRRule("FREQ=WEEKLY;COUNT=3;BYDAY=MO,TH");
+        LocalDateTime seed = LocalDateTime.of(2025, 3, 3, 18, 30);
+
+        // when
+        LocalDateTime last = RecurrenceEvaluator.firstOccurrenceAtOrAfter(recurrence, seed, seed.plusDays(4));
+        LocalDateTime exhausted = RecurrenceEvaluator.firstOccurrenceAtOrAfter(recurrence, seed, seed.plusDays(8));
+
+        // then
+        assertThat(last).isEqualTo(LocalDateTime.of(2025, 3, 10, 18, 30));
+        assertThat(exhausted).isNull();
+    }
+
+    private static Stream<Arguments> randomSupportedRules() {
+        Random random = new Random(RANDOM_SEED);
+        List<Arguments> cases = new ArrayList<>();
+        while (cases.size() < SAMPLES) {
+            LocalDateTime seed = BASE.plusDays(random.nextInt(730))
+                    .withHour(random.nextInt(24))
+                    .withMinute(random.nextInt(4) * 15);
+            Recurrence recurrence = randomRecurrence(random, seed);
+            if (!RecurrenceEvaluator.supports(recurrence, seed)) {
+                continue;
+            }
+            LocalDateTime from = seed.plusHours(random.nextInt(24 * 400) - 24 * 30);
+            LocalDateTime to = from.plusHours(random.nextInt(24 * 120));
+            cases.add(Arguments.of(RecurrenceUtils.generateRRule(recurrence), seed, from, to));
+        }
+        return cases.stream();
+    }
+
+    private static Stream<Arguments> unsupportedRules() {
+        return Stream.of(
+                Arguments.of("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,SU", LocalDateTime.of(2025, 3, 5, 10, 0)),
+                Arguments.of("FREQ=WEEKLY;INTERVAL=3;BYDAY=TU", LocalDateTime.of(2025, 3, 9, 10, 0)),
+                Arguments.of("FREQ=MONTHLY;BYMONTHDAY=31", LocalDateTime.of(2025, 1, 31, 10, 0)),
+                Arguments.of("FREQ=MONTHLY", LocalDateTime.of(2025, 1, 30, 10, 0)),
+                Arguments.of("FREQ=MONTHLY;BYDAY=TU,TH", LocalDateTime.of(2025, 1, 7, 10, 0)),
+                Arguments.of("FREQ=YEARLY", LocalDateTime.of(2028, 2, 29, 10, 0)),
+                Arguments.of("FREQ=DAILY;BYMONTHDAY=1,15", LocalDateTime.of(2025, 1, 1, 10, 0))
+        );
+    }
+
+    private static Recurrence randomRecurrence(Random random, LocalDateTime seed) {
+        String frequency = FREQUENCIES.get(random.nextInt(FREQUENCIES.size()));
+        Recurrence.RecurrenceBuilder builder = Recurrence.builder()
+                .frequency(frequency)
+                .interval(1 + random.nextInt(4));
+
+        if (("DAILY".equals(frequency) || "WEEKLY".equals(frequency)) && random.nextBoolean()) {
+            builder.byDays(IntStream.range(0, DAYS.size())
+                    .filter(i -> random.nextInt(3) == 0)
+                    .mapToObj(DAYS::get)
+                    .toList());
+        }
+        if ("MONTHLY".equals(frequency) && random.nextBoolean()) {
+            builder.byMonthDay(IntStream.rangeClosed(1, 28)
+                    .filter(i -> random.nextInt(8) == 0)
+                    .boxed()
+                    .toList());
+        }
+
+        switch (random.nextInt(3)) {
+            case 0 -> builder.count(1 + random.nextInt(30));
+            case 1 -> builder.until(seed.plusDays(random.nextInt(500)).withHour(23).withMinute(59));
+            default -> {
+            }
+        }
+        Recurrence recurrence = builder.build();
+        if (recurrence.getByDays() != null && recurrence.getByDays().isEmpty()) {
+            recurrence.setByDays(null);
+        }
+        if (recurrence.getByMonthDay() != null && recurrence.getByMonthDay().isEmpty()) {
+            recurrence.setByMonthDay(null);
+        }
+        return recurrence;
+    }
+}
@@ -0,0 +1,80 @@
+package com.whatstheplan.events.utils;
+
+import com.whatstheplan.events.config.RecurrenceCacheProperties;
+import com.whatstheplan.events.model.CompiledRecurrence;
+import com.whatstheplan.events.model.Recurrence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurrenceRuleCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecurrenceRuleCache recurrenceRuleCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recurrenceRuleCache = new RecurrenceRuleCache(new RecurrenceCacheProperties(), meterRegistry);
+    }
+
+    @Test
+    void whenSameRuleIsRequestedTwice_thenShouldReturnSameCompiledInstance() {
+        // when
+        CompiledRecurrence first = recurrenceRuleCache.get("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE");
+        CompiledRecurrence second = recurrenceRuleCache.get("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE");
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(first.recurrence().getFrequency()).isEqualTo("WEEKLY");
+        assertThat(first.recurrence().getByDays()).containsExactly("MO", "WE");
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenRuleIsMissing_thenShouldCompileFromRecurrence() {
+        // given
+        Recurrence recurrence = Recurrence.builder()
+                .frequency("DAILY")
+                .count(3)
+                .build();
+
+        // when
+        CompiledRecurrence compiled = recurrenceRuleCache.get(null, recurrence);
+
+        // then
+        assertThat(compiled.rule()).isEqualTo("FREQ=DAILY;COUNT=3");
+        assertThat(compiled.recurrence().getCount()).isEqualTo(3);
+    }
+
+    @Test
+    void whenReturnedListsAreModified_thenCachedRecurrenceShouldBeUnchanged() {
+        // given
+        CompiledRecurrence compiled = recurrenceRuleCache.get("FREQ=MONTHLY;BYMONTHDAY=1,15");
+
+        // when
+        List<Integer> monthDays = compiled.recurrence().getByMonthDay();
+        monthDays.add(20);
+
+        // then
+        assertThat(compiled.recurrence().getByMonthDay()).containsExactly(1, 15);
+    }
+
+    @Test
+    void whenReturnedRecurrenceIsModified_thenCachedRecurrenceShouldBeUnchanged() {
+        // given
+        CompiledRecurrence compiled = recurrenceRuleCache.get("FREQ=DAILY;COUNT=3");
+
+        // when
+        compiled.recurrence().setCount(10);
+
+        // then
+        assertThat(compiled.recurrence()).isNotSameAs(compiled.recurrence());
+        assertThat(recurrenceRuleCache.get("FREQ=DAILY;COUNT=3").recurrence().getCount()).isEqualTo(3);
+    }
+}